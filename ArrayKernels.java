@@ -0,0 +1,151 @@
+/**
+ * Element-wise kernels over the first 'length' values of double[] arrays. INSTANCE is a
+ * VectorKernels when the jdk.incubator.vector module is available at runtime and a Scalar
+ * otherwise, so callers get SIMD code where the JVM supports it without depending on the module.
+ *
+ * Output arrays may be the same array as an input.
+*/
+abstract class ArrayKernels {
+    static final ArrayKernels INSTANCE = load();
+
+    /**
+     * Return a VectorKernels if jdk.incubator.vector is in the boot layer, otherwise a Scalar.
+     * VectorKernels is loaded by name so that this class links without the module.
+    */
+    private static ArrayKernels load(){
+        if(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()){
+            try{
+                return (ArrayKernels)Class.forName("VectorKernels").getDeclaredConstructor().newInstance();
+            }catch(ReflectiveOperationException | LinkageError e){
+                // Fall through to the scalar kernels.
+            }
+        }
+        return new Scalar();
+    }
+    /**
+     * c[i] = a[i] + b[i] for 0 <= i < 'length'.
+     * @modifies c
+    */
+    abstract void add(double[] a, double[] b, double[] c, int length);
+    /**
+     * c[i] = a[i] + 'value' for 0 <= i < 'length'.
+     * @modifies c
+    */
+    abstract void add(double[] a, double value, double[] c, int length);
+    /**
+     * c[i] = a[i]*'scale' for 0 <= i < 'length'.
+     * @modifies c
+    */
+    abstract void scale(double[] a, double scale, double[] c, int length);
+    /**
+     * c[i] = |a[i]| for 0 <= i < 'length'.
+     * @modifies c
+    */
+    abstract void abs(double[] a, double[] c, int length);
+    /**
+     * y[yOffset + i] += 'alpha'*x[xOffset + i] for 0 <= i < 'length'.
+     * @spec.requires the two ranges do not overlap unless they are the same range.
+     * @modifies y
+    */
+    abstract void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+    /**
+     * Return the sum of a[i]*b[i] for 0 <= i < 'length'.
+    */
+    abstract double dot(double[] a, double[] b, int length);
+    /**
+     * Return the largest of a[0] to a['length'-1].
+     * @spec.requires 'length' > 0
+    */
+    abstract double max(double[] a, int length);
+    /**
+     * Return the smallest of a[0] to a['length'-1].
+     * @spec.requires 'length' > 0
+    */
+    abstract double min(double[] a, int length);
+
+    /**
+     * Plain loops, used when the Vector API is unavailable and for the tails of VectorKernels.
+    */
+    static final class Scalar extends ArrayKernels {
+        @Override
+        void add(double[] a, double[] b, double[] c, int length){
+            add(a, b, c, 0, length);
+        }
+        static void add(double[] a, double[] b, double[] c, int start, int end){
+            for(int i = start; i < end; i++){
+                c[i] = a[i] + b[i];
+            }
+        }
+        @Override
+        void add(double[] a, double value, double[] c, int length){
+            add(a, value, c, 0, length);
+        }
+        static void add(double[] a, double value, double[] c, int start, int end){
+            for(int i = start; i < end; i++){
+                c[i] = a[i] + value;
+            }
+        }
+        @Override
+        void scale(double[] a, double scale, double[] c, int length){
+            scale(a, scale, c, 0, length);
+        }
+        static void scale(double[] a, double scale, double[] c, int start, int end){
+            for(int i = start; i < end; i++){
+                c[i] = a[i]*scale;
+            }
+        }
+        @Override
+        void abs(double[] a, double[] c, int length){
+            abs(a, c, 0, length);
+        }
+        static void abs(double[] a, double[] c, int start, int end){
+            for(int i = start; i < end; i++){
+                c[i] = Math.abs(a[i]);
+            }
+        }
+        @Override
+        void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length){
+            axpy(alpha, x, xOffset, y, yOffset, 0, length);
+        }
+        static void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int start, int end){
+            for(int i = start; i < end; i++){
+                y[yOffset + i] += alpha*x[xOffset + i];
+            }
+        }
+        @Override
+        double dot(double[] a, double[] b, int length){
+            return dot(a, b, 0, length);
+        }
+        static double dot(double[] a, double[] b, int start, int end){
+            double total = 0;
+            for(int i = start; i < end; i++){
+                total += a[i]*b[i];
+            }
+            return total;
+        }
+        @Override
+        double max(double[] a, int length){
+            return max(a, a[0], 0, length);
+        }
+        static double max(double[] a, double val, int start, int end){
+            for(int i = start; i < end; i++){
+                if(val < a[i]){
+                    val = a[i];
+                }
+            }
+            return val;
+        }
+        @Override
+        double min(double[] a, int length){
+            return min(a, a[0], 0, length);
+        }
+        static double min(double[] a, double val, int start, int end){
+            for(int i = start; i < end; i++){
+                if(val > a[i]){
+                    val = a[i];
+                }
+            }
+            return val;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/**
+ * An immutable sparse matrix in compressed sparse column form. The nonzeros are stored column by
+ * column, which makes column access and the transpose of a CsrMatrix free.
+*/
+public class CscMatrix extends SparseMatrix {
+    CscMatrix(int height, int width, int[] pointers, int[] indices, double[] values){
+        super(height, width, pointers, indices, values);
+    }
+    /**
+     * Return the nonzeros of 'matrix' in CSC form.
+     *
+     * @param matrix matrix to convert.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return 'matrix' in CSC form.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static CscMatrix fromDense(Matrix matrix){
+        return CsrMatrix.fromDense(matrix).toCsc();
+    }
+    @Override
+    boolean isRowMajor(){
+        return false;
+    }
+    /**
+     * Return the transpose of this in CSR form. The arrays of this are shared, not copied.
+     *
+     * @return transpose of this.
+     *
+     * O(1)
+    */
+    public CsrMatrix transpose(){
+        return new CsrMatrix(getM(), getN(), pointers, indices, values);
+    }
+    /**
+     * Return this in CSR form.
+     *
+     * @return this in CSR form.
+     *
+     * O(getNonZeros() + getN())
+    */
+    public CsrMatrix toCsr(){
+        return transpose().toCsc().transpose();
+    }
+    /**
+     * Return this scaled by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @spec.requires no NaN inputs.
+     * @return scaled matrix.
+     *
+     * O(getNonZeros())
+    */
+    public CscMatrix scale(double scale){
+        return transpose().scale(scale).transpose();
+    }
+    /**
+     * Return the sum of this and 'matrix'.
+     *
+     * @param matrix Matrix to be added.
+     * @throws IllegalArgumentException if matrix == null
+     * @throws IllegalArgumentException if matrix.getN() != this.getN() || matrix.getM() != this.getM();
+     * @return sum of this and 'matrix'.
+     *
+     * O(getNonZeros() + matrix.getNonZeros())
+    */
+    public CscMatrix add(CscMatrix matrix){
+        Parts sum = addArrays(matrix);
+        return new CscMatrix(getN(), getM(), sum.pointers, sum.indices, sum.values);
+    }
+    /**
+     * Return the matrix multiple of this and the dense 'matrix'. Each nonzero of column k of this
+     * adds a scaled row k of 'matrix' to a row of the result.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return matrix multiple of this and 'matrix', or null if not AXB times BXC matricies.
+     *
+     * O(getNonZeros()*matrix.getM())
+    */
+    public Matrix matrixMultiply(Matrix matrix){
+        checkNull(matrix);
+        if(getM() != matrix.getN()){
+            return null;
+        }
+        int width = matrix.getM();
+        double[] other = matrix.sharedArray();
+        double[] goal = new double[getN()*width];
+        for(int k = 0; k != getM(); k++){
+            int added = k*width;
+            for(int i = pointers[k]; i != pointers[k + 1]; i++){
+                ArrayKernels.INSTANCE.axpy(values[i], other, added, goal, indices[i]*width, width);
+            }
+        }
+        return new Matrix(getN(), width, goal);
+    }
+    /**
+     * Return the matrix multiple of this and the sparse 'matrix'. Uses A*B = (B^T*A^T)^T, where both
+     * transposes are free CSR views, so the product runs through the CSR kernel.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return matrix multiple of this and 'matrix', or null if not AXB times BXC matricies.
+     *
+     * O(multiplications + nonzeros of result*log(nonzeros of a result column) + getN())
+    */
+    public CscMatrix matrixMultiply(CscMatrix matrix){
+        checkNull(matrix);
+        if(getM() != matrix.getN()){
+            return null;
+        }
+        return matrix.transpose().matrixMultiply(transpose()).transpose();
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.Arrays;
+
+/**
+ * An immutable sparse matrix in compressed sparse row form. The nonzeros are stored row by row,
+ * which makes it the format to use on the left of a product.
+*/
+public class CsrMatrix extends SparseMatrix {
+    CsrMatrix(int height, int width, int[] pointers, int[] indices, double[] values){
+        super(height, width, pointers, indices, values);
+    }
+    /**
+     * Return the nonzeros of 'matrix' in CSR form.
+     *
+     * @param matrix matrix to convert.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return 'matrix' in CSR form.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static CsrMatrix fromDense(Matrix matrix){
+        checkNull(matrix);
+        double[] graph = matrix.sharedArray();
+        int height = matrix.getN();
+        int width = matrix.getM();
+        int[] pointers = new int[height + 1];
+        int nonZeros = 0;
+        for(int i = 0; i != graph.length; i++){
+            if(graph[i] != 0){
+                nonZeros++;
+            }
+        }
+        int[] indices = new int[nonZeros];
+        double[] values = new double[nonZeros];
+        int place = 0;
+        for(int y = 0; y != height; y++){
+            int row = y*width;
+            for(int x = 0; x != width; x++){
+                if(graph[row + x] != 0){
+                    indices[place] = x;
+                    values[place++] = graph[row + x];
+                }
+            }
+            pointers[y + 1] = place;
+        }
+        return new CsrMatrix(height, width, pointers, indices, values);
+    }
+    @Override
+    boolean isRowMajor(){
+        return true;
+    }
+    /**
+     * Return the transpose of this in CSC form. The arrays of this are shared, not copied.
+     *
+     * @return transpose of this.
+     *
+     * O(1)
+    */
+    public CscMatrix transpose(){
+        return new CscMatrix(getM(), getN(), pointers, indices, values);
+    }
+    /**
+     * Return this in CSC form.
+     *
+     * @return this in CSC form.
+     *
+     * O(getNonZeros() + getM())
+    */
+    public CscMatrix toCsc(){
+        int[] goalPointers = new int[getM() + 1];
+        for(int i = 0; i != indices.length; i++){
+            goalPointers[indices[i] + 1]++;
+        }
+        for(int x = 0; x != getM(); x++){
+            goalPointers[x + 1] += goalPointers[x];
+        }
+        int[] next = Arrays.copyOf(goalPointers, getM());
+        int[] goalIndices = new int[indices.length];
+        double[] goalValues = new double[values.length];
+        for(int y = 0; y != getN(); y++){
+            for(int i = pointers[y]; i != pointers[y + 1]; i++){
+                int place = next[indices[i]]++;
+                goalIndices[place] = y;
+                goalValues[place] = values[i];
+            }
+        }
+        return new CscMatrix(getN(), getM(), goalPointers, goalIndices, goalValues);
+    }
+    /**
+     * Return this scaled by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @spec.requires no NaN inputs.
+     * @return scaled matrix.
+     *
+     * O(getNonZeros())
+    */
+    public CsrMatrix scale(double scale){
+        if(scale == 0){
+            return new CsrMatrix(getN(), getM(), new int[getN() + 1], new int[0], new double[0]);
+        }
+        return new CsrMatrix(getN(), getM(), pointers, indices, scaledValues(scale));
+    }
+    /**
+     * Return the sum of this and 'matrix'.
+     *
+     * @param matrix Matrix to be added.
+     * @throws IllegalArgumentException if matrix == null
+     * @throws IllegalArgumentException if matrix.getN() != this.getN() || matrix.getM() != this.getM();
+     * @return sum of this and 'matrix'.
+     *
+     * O(getNonZeros() + matrix.getNonZeros())
+    */
+    public CsrMatrix add(CsrMatrix matrix){
+        Parts sum = addArrays(matrix);
+        return new CsrMatrix(getN(), getM(), sum.pointers, sum.indices, sum.values);
+    }
+    /**
+     * Return the matrix multiple of this and the dense 'matrix'. Each nonzero of this adds a scaled
+     * row of 'matrix' to a row of the result.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return matrix multiple of this and 'matrix', or null if not AXB times BXC matricies.
+     *
+     * O(getNonZeros()*matrix.getM())
+    */
+    public Matrix matrixMultiply(Matrix matrix){
+        checkNull(matrix);
+        if(getM() != matrix.getN()){
+            return null;
+        }
+        int width = matrix.getM();
+        double[] other = matrix.sharedArray();
+        double[] goal = new double[getN()*width];
+        for(int y = 0; y != getN(); y++){
+            int row = y*width;
+            for(int i = pointers[y]; i != pointers[y + 1]; i++){
+                ArrayKernels.INSTANCE.axpy(values[i], other, indices[i]*width, goal, row, width);
+            }
+        }
+        return new Matrix(getN(), width, goal);
+    }
+    /**
+     * Return the matrix multiple of this and the sparse 'matrix' by Gustavson's row-by-row algorithm.
+     * Each row of the result is gathered in a dense accumulator that is cleared through the list of
+     * columns it touched, so no step costs more than the nonzeros it produces.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return matrix multiple of this and 'matrix', or null if not AXB times BXC matricies.
+     *
+     * O(multiplications + nonzeros of result*log(nonzeros of a result row) + matrix.getM())
+    */
+    public CsrMatrix matrixMultiply(CsrMatrix matrix){
+        checkNull(matrix);
+        if(getM() != matrix.getN()){
+            return null;
+        }
+        int width = matrix.getM();
+        double[] accumulator = new double[width];
+        boolean[] touched = new boolean[width];
+        int[] goalPointers = new int[getN() + 1];
+        int[] goalIndices = new int[Math.max(16, values.length + matrix.values.length)];
+        double[] goalValues = new double[goalIndices.length];
+        int place = 0;
+        for(int y = 0; y != getN(); y++){
+            int start = place;
+            for(int i = pointers[y]; i != pointers[y + 1]; i++){
+                double value = values[i];
+                int row = indices[i];
+                for(int j = matrix.pointers[row]; j != matrix.pointers[row + 1]; j++){
+                    int x = matrix.indices[j];
+                    if(!touched[x]){
+                        touched[x] = true;
+                        if(place == goalIndices.length){
+                            goalIndices = Arrays.copyOf(goalIndices, 2*place);
+                            goalValues = Arrays.copyOf(goalValues, 2*place);
+                        }
+                        goalIndices[place++] = x;
+                    }
+                    accumulator[x] += value*matrix.values[j];
+                }
+            }
+            Arrays.sort(goalIndices, start, place);
+            int end = start;
+            for(int i = start; i != place; i++){
+                int x = goalIndices[i];
+                if(accumulator[x] != 0){
+                    goalIndices[end] = x;
+                    goalValues[end++] = accumulator[x];
+                }
+                accumulator[x] = 0;
+                touched[x] = false;
+            }
+            place = end;
+            goalPointers[y + 1] = place;
+        }
+        return new CsrMatrix(getN(), width, goalPointers, trim(goalIndices, place), trim(goalValues, place));
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * The immutable reduced row echelon form of a Matrix together with its pivot columns and rank.
+ *
+ * It is found by a single Gauss-Jordan pass with partial pivoting over a private working copy.
+ * A column has no pivot when every candidate value in it is no larger than max(n, m) units in
+ * the last place of the largest absolute value in the matrix.
+*/
+public class EchelonForm {
+    private final Matrix reduced;
+    private final int[] pivotColumns;
+
+    /**
+     * Reduce the 'n'X'm' row-major matrix 'values' in place.
+     *
+     * @param values row-major values of the matrix, taken over and overwritten with its reduced form.
+     * @param n height of the matrix.
+     * @param m width of the matrix.
+     * @spec.requires values != null, values.length == n*m, no NaN inputs.
+     *
+     * O(n*m*min(n, m))
+    */
+    EchelonForm(double[] values, int n, int m){
+        double largest = 0;
+        for(int i = 0; i != values.length; i++){
+            largest = Math.max(largest, Math.abs(values[i]));
+        }
+        double tolerance = Math.ulp(largest)*Math.max(n, m);
+        int[] pivots = new int[Math.min(n, m)];
+        int rank = 0;
+        for(int column = 0; column != m && rank != n; column++){
+            int pivot = rank;
+            double pivotSize = Math.abs(values[rank*m + column]);
+            for(int i = rank + 1; i != n; i++){
+                double value = Math.abs(values[i*m + column]);
+                if(value > pivotSize){
+                    pivotSize = value;
+                    pivot = i;
+                }
+            }
+            if(pivotSize <= tolerance){
+                for(int i = rank; i != n; i++){
+                    values[i*m + column] = 0;
+                }
+                continue;
+            }
+            int pivotRow = rank*m;
+            if(pivot != rank){
+                int other = pivot*m;
+                for(int j = column; j != m; j++){
+                    double o = values[pivotRow + j];
+                    values[pivotRow + j] = values[other + j];
+                    values[other + j] = o;
+                }
+            }
+            double scale = 1/values[pivotRow + column];
+            values[pivotRow + column] = 1;
+            for(int j = column + 1; j != m; j++){
+                values[pivotRow + j] *= scale;
+            }
+            for(int i = 0; i != n; i++){
+                int row = i*m;
+                double factor = values[row + column];
+                if(i == rank || factor == 0){
+                    continue;
+                }
+                values[row + column] = 0;
+                for(int j = column + 1; j != m; j++){
+                    values[row + j] -= factor*values[pivotRow + j];
+                }
+            }
+            pivots[rank++] = column;
+        }
+        pivotColumns = new int[rank];
+        System.arraycopy(pivots, 0, pivotColumns, 0, rank);
+        reduced = new Matrix(n, m, values);
+    }
+    /**
+     * Return the matrix in reduced row echelon form.
+     *
+     * @return the reduced row echelon form.
+     *
+     * O(1)
+    */
+    public Matrix getMatrix(){
+        return reduced;
+    }
+    /**
+     * Return the columns that hold a pivot, in increasing order. Pivot i is in row i.
+     *
+     * @return the pivot columns.
+     *
+     * O(getRank())
+    */
+    public int[] getPivotColumns(){
+        return pivotColumns.clone();
+    }
+    /**
+     * Return the number of pivots, which is the rank of the matrix.
+     *
+     * @return the rank of the matrix.
+     *
+     * O(1)
+    */
+    public int getRank(){
+        return pivotColumns.length;
+    }
+}
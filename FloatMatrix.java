@@ -0,0 +1,293 @@
+import java.util.Arrays;
+
+/**
+ * An immutable matrix of float values, using half the memory of a Matrix so twice as many values fit
+ * in each cache level. Values and products are rounded to float precision; dot products are summed
+ * in double.
+*/
+// graph[y*width + x], graph[height][width], graph[N][M]
+public final class FloatMatrix {
+    private final float[] graph;
+    private final int height;
+    private final int width;
+    /**
+     * Create a matrix holding a copy of 'graph'.
+     *
+     * @param graph matrix values, graph[y][x] is the value in place 'x' 'y'.
+     * @throws IllegalArgumentException iff 'graph' == null, graph.length == 0 or the rows of 'graph' differ in length.
+     *
+     * O(graph.length*graph[0].length)
+    */
+    public FloatMatrix(float[][] graph){
+        if(graph == null || graph.length == 0 || graph[0] == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        height = graph.length;
+        width = graph[0].length;
+        this.graph = new float[height*width];
+        for(int i = 0; i != height; i++){
+            if(graph[i] == null || graph[i].length != width){
+                throw new IllegalArgumentException("Every row must have "+width+" values.");
+            }
+            System.arraycopy(graph[i], 0, this.graph, i*width, width);
+        }
+    }
+    /**
+     * Create a 'height'X'width' matrix that takes ownership of the row-major array 'graph'.
+     *
+     * @spec.requires graph != null, graph.length == height*width.
+     *
+     * O(1)
+    */
+    FloatMatrix(int height, int width, float[] graph){
+        this.height = height;
+        this.width = width;
+        this.graph = graph;
+    }
+    /**
+     * Return the values of 'matrix' rounded to floats.
+     *
+     * @param matrix matrix to convert.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return 'matrix' as a FloatMatrix.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static FloatMatrix of(Matrix matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        double[] values = matrix.sharedArray();
+        float[] graph = new float[values.length];
+        for(int i = 0; i != values.length; i++){
+            graph[i] = (float)values[i];
+        }
+        return new FloatMatrix(matrix.getN(), matrix.getM(), graph);
+    }
+    /**
+     * Return this as a Matrix. Every float is exactly a double, so nothing is rounded.
+     *
+     * @return this as a Matrix.
+     *
+     * O(getN()*getM())
+    */
+    public Matrix toMatrix(){
+        double[] values = new double[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            values[i] = graph[i];
+        }
+        return new Matrix(height, width, values);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Get number in place 'x' 'y'.
+     * @spec.requires 0 <= x < getM(), 0 <= y < getN().
+     *
+     * O(1)
+    */
+    public float get(int x, int y){
+        return graph[y*width + x];
+    }
+    /**
+     * Return a copy of the row-major values of this.
+     *
+     * O(getN()*getM())
+    */
+    float[] cloneArray(){
+        return graph.clone();
+    }
+    /**
+     * Return the transpose of this.
+     *
+     * @return transpose of this.
+     *
+     * O(getN()*getM())
+    */
+    public FloatMatrix transpose(){
+        float[] transpose = new float[graph.length];
+        int place = 0;
+        for(int i = 0; i != width; i++){
+            for(int j = 0; j != height; j++){
+                transpose[place++] = graph[j*width + i];
+            }
+        }
+        return new FloatMatrix(width, height, transpose);
+    }
+    /**
+     * Return the sum of this and 'mat'.
+     *
+     * @param mat Matrix to be added.
+     * @throws IllegalArgumentException if mat == null
+     * @throws IllegalArgumentException if mat.getN() != this.getN() || mat.getM() != this.getM();
+     * @return sum of this and 'mat'.
+     *
+     * O(getN()*getM())
+    */
+    public FloatMatrix add(FloatMatrix mat){
+        checkSameSize(mat);
+        float[] goal = new float[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = graph[i] + mat.graph[i];
+        }
+        return new FloatMatrix(height, width, goal);
+    }
+    /**
+     * Return this with 'value' added to every value.
+     *
+     * @param value value to add.
+     * @return this plus 'value'.
+     *
+     * O(getN()*getM())
+    */
+    public FloatMatrix add(float value){
+        float[] goal = new float[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = graph[i] + value;
+        }
+        return new FloatMatrix(height, width, goal);
+    }
+    /**
+     * Return this scaled by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @return scaled matrix.
+     *
+     * O(getN()*getM())
+    */
+    public FloatMatrix scale(float scale){
+        float[] goal = new float[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = graph[i]*scale;
+        }
+        return new FloatMatrix(height, width, goal);
+    }
+    /**
+     * Return this with every negative value multiplied by -1.
+     *
+     * @return absolute values of this.
+     *
+     * O(getN()*getM())
+    */
+    public FloatMatrix abs(){
+        float[] goal = new float[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = Math.abs(graph[i]);
+        }
+        return new FloatMatrix(height, width, goal);
+    }
+    /**
+     * Returns the matrix multiple of two matrices. Returns null is this is impossible.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException Iff 'matrix' == null.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     *
+     * O(getN()*getM()*matrix.getM())
+    */
+    public FloatMatrix matrixMultiply(FloatMatrix matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(width != matrix.height){
+            return null;
+        }
+        int goalWidth = matrix.width;
+        float[] goal = new float[height*goalWidth];
+        for(int i = 0; i != height; i++){
+            int row = i*goalWidth;
+            for(int p = 0; p != width; p++){
+                float value = graph[i*width + p];
+                int other = p*goalWidth;
+                for(int j = 0; j != goalWidth; j++){
+                    goal[row + j] += value*matrix.graph[other + j];
+                }
+            }
+        }
+        return new FloatMatrix(height, goalWidth, goal);
+    }
+    /**
+     * Finds the dot product of this and 'matrix', the sum of the products of matching elements.
+     *
+     * @param matrix to find dot product with this.
+     * @throws IllegalArgumentException if matrix == null
+     * @throws IllegalArgumentException if matrix.getN() != this.getN() || matrix.getM() != this.getM();
+     *
+     * O(getN()*getM())
+    */
+    public double dotProduct(FloatMatrix matrix){
+        checkSameSize(matrix);
+        double total = 0;
+        for(int i = 0; i != graph.length; i++){
+            total += (double)graph[i]*matrix.graph[i];
+        }
+        return total;
+    }
+    /**
+     * Return the largest value of this.
+     * @spec.requires getN()*getM() > 0
+     *
+     * O(getN()*getM())
+    */
+    public float getMax(){
+        float val = graph[0];
+        for(int i = 1; i != graph.length; i++){
+            val = Math.max(val, graph[i]);
+        }
+        return val;
+    }
+    /**
+     * Return the smallest value of this.
+     * @spec.requires getN()*getM() > 0
+     *
+     * O(getN()*getM())
+    */
+    public float getMin(){
+        float val = graph[0];
+        for(int i = 1; i != graph.length; i++){
+            val = Math.min(val, graph[i]);
+        }
+        return val;
+    }
+    /**
+     * Standard equality opperator. Values are compared exactly.
+    */
+    @Override
+    public boolean equals(Object obj){
+        if(!(obj instanceof FloatMatrix)){
+            return false;
+        }
+        FloatMatrix matrix = (FloatMatrix)obj;
+        return matrix.height == height && matrix.width == width && Arrays.equals(matrix.graph, graph);
+    }
+    @Override
+    public int hashCode(){
+        return 31*(31*height + width) + Arrays.hashCode(graph);
+    }
+    private void checkSameSize(FloatMatrix mat){
+        if(mat == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(mat.height != height || mat.width != width){
+            throw new IllegalArgumentException("Cannot preform opperation on matricies of differnt dimensions.\n mat.getN() = " + mat.height +
+            " while this.getN() = "+height+" mat.getM() = "+ mat.width + " while this.getM() = "+width+".");
+        }
+    }
+}
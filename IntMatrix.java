@@ -0,0 +1,337 @@
+import java.util.Arrays;
+
+/**
+ * An immutable matrix of int values, using half the memory of a Matrix. Every operation is exact: a
+ * result that does not fit in an int throws ArithmeticException instead of wrapping or rounding.
+ * Products are accumulated in longs.
+*/
+// graph[y*width + x], graph[height][width], graph[N][M]
+public final class IntMatrix {
+    private final int[] graph;
+    private final int height;
+    private final int width;
+    /**
+     * Create a matrix holding a copy of 'graph'.
+     *
+     * @param graph matrix values, graph[y][x] is the value in place 'x' 'y'.
+     * @throws IllegalArgumentException iff 'graph' == null, graph.length == 0 or the rows of 'graph' differ in length.
+     *
+     * O(graph.length*graph[0].length)
+    */
+    public IntMatrix(int[][] graph){
+        if(graph == null || graph.length == 0 || graph[0] == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        height = graph.length;
+        width = graph[0].length;
+        this.graph = new int[height*width];
+        for(int i = 0; i != height; i++){
+            if(graph[i] == null || graph[i].length != width){
+                throw new IllegalArgumentException("Every row must have "+width+" values.");
+            }
+            System.arraycopy(graph[i], 0, this.graph, i*width, width);
+        }
+    }
+    /**
+     * Create a 'height'X'width' matrix that takes ownership of the row-major array 'graph'.
+     *
+     * @spec.requires graph != null, graph.length == height*width.
+     *
+     * O(1)
+    */
+    IntMatrix(int height, int width, int[] graph){
+        this.height = height;
+        this.width = width;
+        this.graph = graph;
+    }
+    /**
+     * Return the values of 'matrix' as ints.
+     *
+     * @param matrix matrix to convert.
+     * @throws IllegalArgumentException iff 'matrix' == null or a value of 'matrix' is not an integer in the range of int.
+     * @return 'matrix' as a IntMatrix.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static IntMatrix of(Matrix matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        double[] values = matrix.sharedArray();
+        int[] graph = new int[values.length];
+        for(int i = 0; i != values.length; i++){
+            if(values[i] != Math.rint(values[i]) || values[i] < Integer.MIN_VALUE || values[i] > Integer.MAX_VALUE){
+                throw new IllegalArgumentException(values[i]+" is not an int.");
+            }
+            graph[i] = (int)values[i];
+        }
+        return new IntMatrix(matrix.getN(), matrix.getM(), graph);
+    }
+    /**
+     * Return this as a Matrix. Every int is exactly a double, so nothing is rounded.
+     *
+     * @return this as a Matrix.
+     *
+     * O(getN()*getM())
+    */
+    public Matrix toMatrix(){
+        double[] values = new double[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            values[i] = graph[i];
+        }
+        return new Matrix(height, width, values);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Get number in place 'x' 'y'.
+     * @spec.requires 0 <= x < getM(), 0 <= y < getN().
+     *
+     * O(1)
+    */
+    public int get(int x, int y){
+        return graph[y*width + x];
+    }
+    /**
+     * Return a copy of the row-major values of this.
+     *
+     * O(getN()*getM())
+    */
+    int[] cloneArray(){
+        return graph.clone();
+    }
+    /**
+     * Return the transpose of this.
+     *
+     * @return transpose of this.
+     *
+     * O(getN()*getM())
+    */
+    public IntMatrix transpose(){
+        int[] transpose = new int[graph.length];
+        int place = 0;
+        for(int i = 0; i != width; i++){
+            for(int j = 0; j != height; j++){
+                transpose[place++] = graph[j*width + i];
+            }
+        }
+        return new IntMatrix(width, height, transpose);
+    }
+    /**
+     * Return the sum of this and 'mat'.
+     *
+     * @param mat Matrix to be added.
+     * @throws IllegalArgumentException if mat == null
+     * @throws IllegalArgumentException if mat.getN() != this.getN() || mat.getM() != this.getM();
+     * @throws ArithmeticException iff a sum overflows an int.
+     * @return sum of this and 'mat'.
+     *
+     * O(getN()*getM())
+    */
+    public IntMatrix add(IntMatrix mat){
+        checkSameSize(mat);
+        int[] goal = new int[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = Math.addExact(graph[i], mat.graph[i]);
+        }
+        return new IntMatrix(height, width, goal);
+    }
+    /**
+     * Return this with 'value' added to every value.
+     *
+     * @param value value to add.
+     * @throws ArithmeticException iff a sum overflows an int.
+     * @return this plus 'value'.
+     *
+     * O(getN()*getM())
+    */
+    public IntMatrix add(int value){
+        int[] goal = new int[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = Math.addExact(graph[i], value);
+        }
+        return new IntMatrix(height, width, goal);
+    }
+    /**
+     * Return this scaled by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @throws ArithmeticException iff a product overflows an int.
+     * @return scaled matrix.
+     *
+     * O(getN()*getM())
+    */
+    public IntMatrix scale(int scale){
+        int[] goal = new int[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = Math.multiplyExact(graph[i], scale);
+        }
+        return new IntMatrix(height, width, goal);
+    }
+    /**
+     * Return this with every negative value multiplied by -1.
+     *
+     * @throws ArithmeticException iff a value is Integer.MIN_VALUE.
+     * @return absolute values of this.
+     *
+     * O(getN()*getM())
+    */
+    public IntMatrix abs(){
+        int[] goal = new int[graph.length];
+        for(int i = 0; i != graph.length; i++){
+            goal[i] = Math.absExact(graph[i]);
+        }
+        return new IntMatrix(height, width, goal);
+    }
+    /**
+     * Returns the matrix multiple of two matrices. Returns null is this is impossible.
+     * When the largest values bound every sum below 2^63 the product runs without overflow checks.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException Iff 'matrix' == null.
+     * @throws ArithmeticException iff a value of the product overflows an int.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     *
+     * O(getN()*getM()*matrix.getM())
+    */
+    public IntMatrix matrixMultiply(IntMatrix matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(width != matrix.height){
+            return null;
+        }
+        int[] goal = new int[height*matrix.width];
+        multiply(graph, matrix.graph, goal, height, width, matrix.width,
+                largestMagnitude(graph)*largestMagnitude(matrix.graph)*width < 0x1p62);
+        return new IntMatrix(height, matrix.width, goal);
+    }
+    /**
+     * Compute C = A*B for row-major 'n'X'k' A and 'k'X'm' B with an i-k-j loop. Each row is accumulated
+     * in longs and checked against the int range once at the end.
+     *
+     * @param safe true iff no sum can overflow a long, so the exact additions can be skipped.
+     * @throws ArithmeticException iff a value of C overflows an int.
+     * @modifies c
+     *
+     * O(n*k*m)
+    */
+    static void multiply(int[] a, int[] b, int[] c, int n, int k, int m, boolean safe){
+        long[] sums = new long[m];
+        for(int i = 0; i != n; i++){
+            Arrays.fill(sums, 0);
+            for(int p = 0; p != k; p++){
+                long value = a[i*k + p];
+                if(value == 0){
+                    continue;
+                }
+                int other = p*m;
+                if(safe){
+                    for(int j = 0; j != m; j++){
+                        sums[j] += value*b[other + j];
+                    }
+                }else{
+                    for(int j = 0; j != m; j++){
+                        sums[j] = Math.addExact(sums[j], value*b[other + j]);
+                    }
+                }
+            }
+            int row = i*m;
+            for(int j = 0; j != m; j++){
+                c[row + j] = Math.toIntExact(sums[j]);
+            }
+        }
+    }
+    private static double largestMagnitude(int[] values){
+        double largest = 0;
+        for(int i = 0; i != values.length; i++){
+            largest = Math.max(largest, Math.abs((double)values[i]));
+        }
+        return largest;
+    }
+    /**
+     * Finds the dot product of this and 'matrix', the sum of the products of matching elements.
+     *
+     * @param matrix to find dot product with this.
+     * @throws IllegalArgumentException if matrix == null
+     * @throws IllegalArgumentException if matrix.getN() != this.getN() || matrix.getM() != this.getM();
+     * @throws ArithmeticException iff the dot product overflows a long.
+     *
+     * O(getN()*getM())
+    */
+    public long dotProduct(IntMatrix matrix){
+        checkSameSize(matrix);
+        long total = 0;
+        for(int i = 0; i != graph.length; i++){
+            total = Math.addExact(total, (long)graph[i]*matrix.graph[i]);
+        }
+        return total;
+    }
+    /**
+     * Return the largest value of this.
+     * @spec.requires getN()*getM() > 0
+     *
+     * O(getN()*getM())
+    */
+    public int getMax(){
+        int val = graph[0];
+        for(int i = 1; i != graph.length; i++){
+            val = Math.max(val, graph[i]);
+        }
+        return val;
+    }
+    /**
+     * Return the smallest value of this.
+     * @spec.requires getN()*getM() > 0
+     *
+     * O(getN()*getM())
+    */
+    public int getMin(){
+        int val = graph[0];
+        for(int i = 1; i != graph.length; i++){
+            val = Math.min(val, graph[i]);
+        }
+        return val;
+    }
+    /**
+     * Standard equality opperator. Values are compared exactly.
+    */
+    @Override
+    public boolean equals(Object obj){
+        if(!(obj instanceof IntMatrix)){
+            return false;
+        }
+        IntMatrix matrix = (IntMatrix)obj;
+        return matrix.height == height && matrix.width == width && Arrays.equals(matrix.graph, graph);
+    }
+    @Override
+    public int hashCode(){
+        return 31*(31*height + width) + Arrays.hashCode(graph);
+    }
+    private void checkSameSize(IntMatrix mat){
+        if(mat == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(mat.height != height || mat.width != width){
+            throw new IllegalArgumentException("Cannot preform opperation on matricies of differnt dimensions.\n mat.getN() = " + mat.height +
+            " while this.getN() = "+height+" mat.getM() = "+ mat.width + " while this.getM() = "+width+".");
+        }
+    }
+}
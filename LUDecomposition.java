@@ -0,0 +1,249 @@
+/**
+ * An immutable LU factorization PA = LU of a square Matrix A with partial pivoting, where P is a
+ * row permutation, L is unit lower triangular and U is upper triangular.
+ *
+ * Factoring costs O(n^3) once. Each later solve, determinant or inverse reuses the factors, so
+ * solving for one more right hand side costs O(n^2).
+*/
+public class LUDecomposition {
+    // L below the diagonal (its unit diagonal is implied) and U on and above it, row-major.
+    private final double[] lu;
+    // Row i of PA is row permutation[i] of A.
+    private final int[] permutation;
+    private final int n;
+    // 1 or -1 for an even or odd number of row swaps.
+    private final int sign;
+    private final boolean singular;
+
+    /**
+     * Factor the 'n'X'n' row-major matrix 'values' in place.
+     *
+     * @param values row-major values of A, taken over and overwritten with its factors.
+     * @param n side length of A.
+     * @spec.requires values != null, values.length == n*n, n >= 1, no NaN inputs.
+     *
+     * O(n^3)
+    */
+    LUDecomposition(double[] values, int n){
+        this.lu = values;
+        this.n = n;
+        permutation = new int[n];
+        for(int i = 0; i != n; i++){
+            permutation[i] = i;
+        }
+        double largest = 0;
+        for(int i = 0; i != lu.length; i++){
+            largest = Math.max(largest, Math.abs(lu[i]));
+        }
+        double tolerance = Math.ulp(largest)*n;
+        int sign = 1;
+        boolean singular = false;
+        for(int k = 0; k != n; k++){
+            int pivot = k;
+            double pivotSize = Math.abs(lu[k*n + k]);
+            for(int i = k + 1; i != n; i++){
+                double value = Math.abs(lu[i*n + k]);
+                if(value > pivotSize){
+                    pivotSize = value;
+                    pivot = i;
+                }
+            }
+            if(pivotSize <= tolerance){
+                singular = true;
+            }
+            if(pivotSize == 0){
+                // Column k is already zero below the diagonal.
+                continue;
+            }
+            if(pivot != k){
+                swapRows(k, pivot);
+                int o = permutation[k];
+                permutation[k] = permutation[pivot];
+                permutation[pivot] = o;
+                sign = -sign;
+            }
+            int pivotRow = k*n;
+            double pivotValue = lu[pivotRow + k];
+            for(int i = k + 1; i != n; i++){
+                int row = i*n;
+                double factor = lu[row + k]/pivotValue;
+                lu[row + k] = factor;
+                if(factor == 0){
+                    continue;
+                }
+                for(int j = k + 1; j != n; j++){
+                    lu[row + j] -= factor*lu[pivotRow + j];
+                }
+            }
+        }
+        this.sign = sign;
+        this.singular = singular;
+    }
+    /**
+     * Swap rows 'row_1' and 'row_2' of the factors.
+     *
+     * @modifies this
+     *
+     * O(n)
+    */
+    private void swapRows(int row_1, int row_2){
+        int first = row_1*n;
+        int second = row_2*n;
+        for(int i = 0; i != n; i++){
+            double o = lu[first + i];
+            lu[first + i] = lu[second + i];
+            lu[second + i] = o;
+        }
+    }
+    /**
+     * Return the side length of the factored matrix.
+     *
+     * @return the side length of A.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return n;
+    }
+    /**
+     * Return true if A is singular. A is singular when a pivot is no larger than n units in the last
+     * place of the largest absolute value in A.
+     *
+     * @return true iff A is singular.
+     *
+     * O(1)
+    */
+    public boolean isSingular(){
+        return singular;
+    }
+    /**
+     * Return the determinant of A.
+     *
+     * @return the determinant of A.
+     *
+     * O(n)
+    */
+    public double deter(){
+        double deter = sign;
+        for(int i = 0; i != n; i++){
+            deter *= lu[i*n + i];
+        }
+        return deter;
+    }
+    /**
+     * Return x such that Ax = 'b'.
+     *
+     * @param b right hand side.
+     * @spec.requires no NaN inputs.
+     * @throws IllegalArgumentException iff 'b' == null || b.length != getN()
+     * @return x such that Ax = 'b', or null if A is singular.
+     *
+     * O(n^2)
+    */
+    public double[] solve(double[] b){
+        if(b == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(b.length != n){
+            throw new IllegalArgumentException("Right hand side has length "+b.length+" but should have length "+n+".");
+        }
+        if(singular){
+            return null;
+        }
+        double[] x = new double[n];
+        for(int i = 0; i != n; i++){
+            x[i] = b[permutation[i]];
+        }
+        solveInPlace(x, 1);
+        return x;
+    }
+    /**
+     * Return X such that AX = 'b', solving for every column of 'b' at once.
+     *
+     * @param b right hand sides, one per column.
+     * @throws IllegalArgumentException iff 'b' == null || b.getN() != getN()
+     * @return X such that AX = 'b', or null if A is singular.
+     *
+     * O(n^2*b.getM())
+    */
+    public Matrix solve(Matrix b){
+        if(b == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(b.getN() != n){
+            throw new IllegalArgumentException("Right hand side has "+b.getN()+" rows but should have "+n+".");
+        }
+        if(singular){
+            return null;
+        }
+        int width = b.getM();
+        double[] values = b.cloneArray();
+        double[] x = new double[n*width];
+        for(int i = 0; i != n; i++){
+            System.arraycopy(values, permutation[i]*width, x, i*width, width);
+        }
+        solveInPlace(x, width);
+        return new Matrix(n, width, x);
+    }
+    /**
+     * Return the inverse of A.
+     *
+     * @return the inverse of A, or null if A is singular.
+     *
+     * O(n^3)
+    */
+    public Matrix inverse(){
+        if(singular){
+            return null;
+        }
+        double[] x = new double[n*n];
+        for(int i = 0; i != n; i++){
+            x[i*n + permutation[i]] = 1;
+        }
+        solveInPlace(x, n);
+        return new Matrix(n, n, x);
+    }
+    /**
+     * Overwrite the row-major 'n'X'width' matrix 'x' holding PB with the solution X of LUX = PB.
+     * Forward and back substitution work on whole rows so every inner step has unit stride.
+     *
+     * @param x permuted right hand sides, overwritten with the solution.
+     * @param width number of right hand sides.
+     * @spec.requires !singular
+     * @modifies x
+     *
+     * O(n^2*width)
+    */
+    private void solveInPlace(double[] x, int width){
+        for(int i = 0; i != n; i++){
+            int row = i*width;
+            for(int p = 0; p != i; p++){
+                double factor = lu[i*n + p];
+                if(factor == 0){
+                    continue;
+                }
+                int other = p*width;
+                for(int j = 0; j != width; j++){
+                    x[row + j] -= factor*x[other + j];
+                }
+            }
+        }
+        for(int i = n - 1; i >= 0; i--){
+            int row = i*width;
+            for(int p = i + 1; p != n; p++){
+                double factor = lu[i*n + p];
+                if(factor == 0){
+                    continue;
+                }
+                int other = p*width;
+                for(int j = 0; j != width; j++){
+                    x[row + j] -= factor*x[other + j];
+                }
+            }
+            double scale = 1/lu[i*n + i];
+            for(int j = 0; j != width; j++){
+                x[row + j] *= scale;
+            }
+        }
+    }
+}
@@ -0,0 +1,444 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * An immutable, unevaluated matrix expression built from Matrix.lazy(). Element-wise operations and
+ * transposes only record a node, so chains such as matrix.lazy().add(-max).scale(-1) allocate nothing
+ * until evaluate() is called.
+ *
+ * evaluate() fuses every element-wise node into a single row-by-row pass over the sources. Consecutive
+ * scale and add(double) calls fold into one affine node, transposes are pushed down onto the sources and
+ * read them with a stride, and matrix products are computed once with the kernel that suits their size.
+ * A product with a transposed Matrix operand reads it in place through a MatrixView.
+*/
+public abstract class LazyMatrix {
+    private final int height;
+    private final int width;
+    // Number of scratch rows row() needs for the intermediate results of this expression.
+    private final int scratchRows;
+
+    private LazyMatrix(int height, int width, int scratchRows){
+        this.height = height;
+        this.width = width;
+        this.scratchRows = scratchRows;
+    }
+    /**
+     * Return an expression that evaluates to 'matrix'.
+     *
+     * @param matrix source of the expression.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return an expression for 'matrix'.
+     *
+     * O(1)
+    */
+    static LazyMatrix of(Matrix matrix){
+        checkNull(matrix);
+        return new Source(matrix, false);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Compute the value of this expression in one fused pass.
+     *
+     * @return the value of this expression.
+     *
+     * O(getN()*getM()*number of nodes) plus the cost of every matrix product
+    */
+    public Matrix evaluate(){
+        double[] graph = new double[height*width];
+        double[][] scratch = new double[scratchRows][width];
+        for(int y = 0; y != height; y++){
+            row(y, graph, y*width, scratch, 0);
+        }
+        return new Matrix(height, width, graph);
+    }
+    /**
+     * Return this scaled by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @spec.requires no NaN inputs.
+     * @return expression for this scaled by 'scale'.
+     *
+     * O(1)
+    */
+    public LazyMatrix scale(double scale){
+        return new Affine(this, scale, 0);
+    }
+    /**
+     * Return this with 'value' added to every element.
+     *
+     * @param value value to add.
+     * @spec.requires no NaN inputs.
+     * @return expression for this plus 'value'.
+     *
+     * O(1)
+    */
+    public LazyMatrix add(double value){
+        return new Affine(this, 1, value);
+    }
+    /**
+     * Return the element-wise sum of this and 'other'.
+     *
+     * @param other expression to add.
+     * @throws IllegalArgumentException iff 'other' == null or the dimensions differ.
+     * @return expression for the sum.
+     *
+     * O(1)
+    */
+    public LazyMatrix add(LazyMatrix other){
+        checkSameSize(other);
+        return new Sum(this, other);
+    }
+    /**
+     * Return the element-wise sum of this and 'other'.
+     *
+     * @param other matrix to add.
+     * @throws IllegalArgumentException iff 'other' == null or the dimensions differ.
+     * @return expression for the sum.
+     *
+     * O(1)
+    */
+    public LazyMatrix add(Matrix other){
+        return add(of(other));
+    }
+    /**
+     * Return the element-wise product of this and 'other'.
+     *
+     * @param other expression to multiply by.
+     * @throws IllegalArgumentException iff 'other' == null or the dimensions differ.
+     * @return expression for the element-wise product.
+     *
+     * O(1)
+    */
+    public LazyMatrix multiplyElements(LazyMatrix other){
+        checkSameSize(other);
+        return new ElementProduct(this, other);
+    }
+    /**
+     * Return this with every negative value multiplied by -1.
+     *
+     * @return expression for the absolute value of this.
+     *
+     * O(1)
+    */
+    public LazyMatrix abs(){
+        return map(Math::abs);
+    }
+    /**
+     * Return this with 'function' applied to every element.
+     *
+     * @param function function to apply.
+     * @throws IllegalArgumentException iff 'function' == null
+     * @return expression for this with 'function' applied.
+     *
+     * O(1)
+    */
+    public LazyMatrix map(DoubleUnaryOperator function){
+        checkNull(function);
+        return new Mapped(this, function);
+    }
+    /**
+     * Return the transpose of this.
+     *
+     * @return expression for the transpose of this.
+     *
+     * O(number of nodes)
+    */
+    public abstract LazyMatrix transpose();
+    /**
+     * Return the matrix multiple of this and 'other'. The product is computed the first time it is
+     * evaluated, with Strassen for large square operands, the common ForkJoinPool for other large
+     * operands and the serial kernel otherwise.
+     *
+     * @param other expression to multiply this by.
+     * @throws IllegalArgumentException iff 'other' == null or not AXB times BXC matricies.
+     * @return expression for the matrix multiple.
+     *
+     * O(1)
+    */
+    public LazyMatrix matrixMultiply(LazyMatrix other){
+        checkNull(other);
+        if(width != other.height){
+            throw new IllegalArgumentException("not AXB times BXC matricies.");
+        }
+        return new Product(this, other);
+    }
+    /**
+     * Return the matrix multiple of this and 'other'. See matrixMultiply(LazyMatrix).
+     *
+     * @param other matrix to multiply this by.
+     * @throws IllegalArgumentException iff 'other' == null or not AXB times BXC matricies.
+     * @return expression for the matrix multiple.
+     *
+     * O(1)
+    */
+    public LazyMatrix matrixMultiply(Matrix other){
+        return matrixMultiply(of(other));
+    }
+    /**
+     * Write row 'y' of this expression into 'goal' starting at 'offset'.
+     *
+     * @param y row to write.
+     * @param goal array to write into.
+     * @param offset place of the first element of the row in 'goal'.
+     * @param scratch rows for intermediate results, scratch[level] and above are free to use.
+     * @param level first free row of 'scratch'.
+     * @modifies goal, scratch[level] and above
+     *
+     * O(getM()*number of nodes)
+    */
+    abstract void row(int y, double[] goal, int offset, double[][] scratch, int level);
+    /**
+     * Return true if this is a Matrix read as its transpose, which view() returns without copying.
+     *
+     * O(1)
+    */
+    boolean isTransposedSource(){
+        return false;
+    }
+    /**
+     * Return a view of the value of this.
+     *
+     * @return view of the value of this.
+     *
+     * O(1) for a source, otherwise the cost of evaluate()
+    */
+    MatrixView view(){
+        return evaluate().view();
+    }
+    private void checkSameSize(LazyMatrix other){
+        checkNull(other);
+        if(other.height != height || other.width != width){
+            throw new IllegalArgumentException("Cannot preform opperation on matricies of differnt dimensions.\n mat.getN() = " + other.height +
+            " while this.getN() = "+height+" mat.getM() = "+ other.width + " while this.getM() = "+width+".");
+        }
+    }
+    private static void checkNull(Object ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+    }
+    /**
+     * Multiply 'left' by 'right' with the kernel that suits their size.
+     *
+     * @requires left.getM() == right.getN()
+     * @return matrix multiple of 'left' and 'right'.
+     *
+     * O(left.getN()*left.getM()*right.getM())
+    */
+    private static Matrix multiply(Matrix left, Matrix right){
+        int n = left.getN();
+        if(n == left.getM() && n == right.getM() && n > StrassenMultiply.DEFAULT_CROSSOVER){
+            return left.strassenMultiply(right);
+        }
+        if((long)n*left.getM()*right.getM() >= ParallelMultiply.PARALLEL_THRESHOLD){
+            return left.matrixMultiply(right, ForkJoinPool.commonPool());
+        }
+        return left.matrixMultiply(right);
+    }
+    /**
+     * A Matrix, read directly or as its transpose.
+    */
+    private static class Source extends LazyMatrix {
+        private final Matrix matrix;
+        private final double[] values;
+        private final boolean transposed;
+        Source(Matrix matrix, boolean transposed){
+            super(transposed ? matrix.getM() : matrix.getN(), transposed ? matrix.getN() : matrix.getM(), 0);
+            this.matrix = matrix;
+            this.values = matrix.sharedArray();
+            this.transposed = transposed;
+        }
+        @Override
+        public LazyMatrix transpose(){
+            return new Source(matrix, !transposed);
+        }
+        @Override
+        public Matrix evaluate(){
+            return transposed ? matrix.transpose() : matrix;
+        }
+        @Override
+        boolean isTransposedSource(){
+            return transposed;
+        }
+        @Override
+        MatrixView view(){
+            return transposed ? matrix.transposeView() : matrix.view();
+        }
+        @Override
+        void row(int y, double[] goal, int offset, double[][] scratch, int level){
+            int width = getM();
+            if(!transposed){
+                System.arraycopy(values, y*width, goal, offset, width);
+                return;
+            }
+            // Row y of the transpose is column y of the matrix.
+            int stride = getN();
+            for(int j = 0; j != width; j++){
+                goal[offset + j] = values[j*stride + y];
+            }
+        }
+    }
+    /**
+     * child*scale + shift, element by element.
+    */
+    private static class Affine extends LazyMatrix {
+        private final LazyMatrix child;
+        private final double scale;
+        private final double shift;
+        Affine(LazyMatrix child, double scale, double shift){
+            super(child.getN(), child.getM(), child.scratchRows);
+            this.child = child;
+            this.scale = scale;
+            this.shift = shift;
+        }
+        @Override
+        public LazyMatrix scale(double scale){
+            return new Affine(child, this.scale*scale, shift*scale);
+        }
+        @Override
+        public LazyMatrix add(double value){
+            return new Affine(child, scale, shift + value);
+        }
+        @Override
+        public LazyMatrix transpose(){
+            return new Affine(child.transpose(), scale, shift);
+        }
+        @Override
+        void row(int y, double[] goal, int offset, double[][] scratch, int level){
+            child.row(y, goal, offset, scratch, level);
+            int end = offset + getM();
+            for(int j = offset; j != end; j++){
+                goal[j] = goal[j]*scale + shift;
+            }
+        }
+    }
+    /**
+     * left + right, element by element.
+    */
+    private static class Sum extends LazyMatrix {
+        private final LazyMatrix left;
+        private final LazyMatrix right;
+        Sum(LazyMatrix left, LazyMatrix right){
+            super(left.getN(), left.getM(), Math.max(left.scratchRows, right.scratchRows + 1));
+            this.left = left;
+            this.right = right;
+        }
+        @Override
+        public LazyMatrix transpose(){
+            return new Sum(left.transpose(), right.transpose());
+        }
+        @Override
+        void row(int y, double[] goal, int offset, double[][] scratch, int level){
+            left.row(y, goal, offset, scratch, level);
+            double[] other = scratch[level];
+            right.row(y, other, 0, scratch, level + 1);
+            for(int j = 0; j != getM(); j++){
+                goal[offset + j] += other[j];
+            }
+        }
+    }
+    /**
+     * left * right, element by element.
+    */
+    private static class ElementProduct extends LazyMatrix {
+        private final LazyMatrix left;
+        private final LazyMatrix right;
+        ElementProduct(LazyMatrix left, LazyMatrix right){
+            super(left.getN(), left.getM(), Math.max(left.scratchRows, right.scratchRows + 1));
+            this.left = left;
+            this.right = right;
+        }
+        @Override
+        public LazyMatrix transpose(){
+            return new ElementProduct(left.transpose(), right.transpose());
+        }
+        @Override
+        void row(int y, double[] goal, int offset, double[][] scratch, int level){
+            left.row(y, goal, offset, scratch, level);
+            double[] other = scratch[level];
+            right.row(y, other, 0, scratch, level + 1);
+            for(int j = 0; j != getM(); j++){
+                goal[offset + j] *= other[j];
+            }
+        }
+    }
+    /**
+     * function(child), element by element.
+    */
+    private static class Mapped extends LazyMatrix {
+        private final LazyMatrix child;
+        private final DoubleUnaryOperator function;
+        Mapped(LazyMatrix child, DoubleUnaryOperator function){
+            super(child.getN(), child.getM(), child.scratchRows);
+            this.child = child;
+            this.function = function;
+        }
+        @Override
+        public LazyMatrix transpose(){
+            return new Mapped(child.transpose(), function);
+        }
+        @Override
+        void row(int y, double[] goal, int offset, double[][] scratch, int level){
+            child.row(y, goal, offset, scratch, level);
+            int end = offset + getM();
+            for(int j = offset; j != end; j++){
+                goal[j] = function.applyAsDouble(goal[j]);
+            }
+        }
+    }
+    /**
+     * The matrix multiple of left and right. It is computed the first time one of its rows is
+     * needed and kept for later evaluations. Threads evaluating at the same time may each compute it,
+     * which is harmless because the result is the same.
+    */
+    private static class Product extends LazyMatrix {
+        private final LazyMatrix left;
+        private final LazyMatrix right;
+        // Value of this product, null until first needed.
+        private Matrix result;
+        Product(LazyMatrix left, LazyMatrix right){
+            super(left.getN(), right.getM(), 0);
+            this.left = left;
+            this.right = right;
+        }
+        @Override
+        public LazyMatrix transpose(){
+            return new Product(right.transpose(), left.transpose());
+        }
+        @Override
+        public Matrix evaluate(){
+            Matrix result = this.result;
+            if(result == null){
+                if(left.isTransposedSource() || right.isTransposedSource()){
+                    // Read the transposed operand in place instead of copying it.
+                    result = left.view().matrixMultiply(right.view());
+                }else{
+                    result = multiply(left.evaluate(), right.evaluate());
+                }
+                this.result = result;
+            }
+            return result;
+        }
+        @Override
+        void row(int y, double[] goal, int offset, double[][] scratch, int level){
+            System.arraycopy(evaluate().sharedArray(), y*getM(), goal, offset, getM());
+        }
+    }
+}
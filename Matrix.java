@@ -1,7 +1,9 @@
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
 import javax.management.RuntimeErrorException;
 
@@ -10,10 +12,15 @@ import java.lang.IllegalArgumentException;
  * A matrix is an immutable 2d array of numbers where each row and column is of length 1 or greater.
  * Visually the matrix forms a square
  */
-// graph[y][x], graph[height][width], graph[N][M]
+// graph[y*width + x], graph[N*M]
 public class Matrix{
-    private final double[][] graph;
-    private static Random random = new Random();
+    private final double[] graph;
+    private final int height;
+    private final int width;
+    // Cached result of fingerprint(), 0 until it is first computed.
+    private volatile long fingerprint;
+    // Largest side length whose determinant is found by cofactor expansion.
+    private static final int COFACTOR_LIMIT = 3;
     /**
      * Create a matrix with the given spefifications.
      * 
@@ -25,11 +32,30 @@ public class Matrix{
     */
     Matrix(double[][] graph){
         checkNull(graph);
+        this.height = graph.length;
+        this.width = graph[0].length;
         this.graph = cloneArray(graph);
     }
+    /**
+     * Create a 'height'X'width' matrix that takes ownership of the row-major array 'graph'.
+     * The array is not copied, so the caller must not modify it afterwards.
+     * 
+     * @param height n of matrix
+     * @param width m of matrix
+     * @param graph row-major matrix values of length 'height'*'width'.
+     * @spec.requires no NaN inputs, graph != null, graph.length == height*width.
+     * 
+     * O(1)
+    */
+    Matrix(int height, int width, double[] graph){
+        this.height = height;
+        this.width = width;
+        this.graph = graph;
+    }
     /**
      * Generate a randomized matrix that is 'height'X'width'. Values are between -10 and 10.
      * If 'intMatrix' then integers are generated otherwise doubles are generated.
+     * Values come from the calling thread's random stream, use MatrixGenerator for repeatable matrices.
      * 
      * @param height n of matrix
      * @param width m of matrix
@@ -43,14 +69,15 @@ public class Matrix{
         if(height < 0 || width < 0){
             throw new IllegalArgumentException("Dimensions must be atleast 0X0.");
         }
-        graph = new double[height][width];
-        for(int i = 0; i != getN(); i++){
-            for(int j = 0; j != getM(); j++){
-                if(intMatrix){
-                    graph[i][j] = random.nextInt(21);
-                }else{
-                    graph[i][j] = random.nextDouble()*20;
-                }
+        this.height = height;
+        this.width = width;
+        graph = new double[height*width];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for(int i = 0; i != graph.length; i++){
+            if(intMatrix){
+                graph[i] = random.nextInt(21);
+            }else{
+                graph[i] = random.nextDouble()*20;
             }
         }
     }
@@ -102,58 +129,245 @@ public class Matrix{
         //b.display();
     }
     /**
-     * @requires NxN matrix
+     * Return the determinant of this. Matrices of up to COFACTOR_LIMIT rows use cofactor expansion,
+     * larger ones the LU factorization from lu().
+     * 
+     * @throws IllegalArgumentException iff getN() != getM()
+     * @return the determinant of this.
+     * 
+     * O(getN()^3)
     */
     public double deter(){
-        if(getM() == 1){
-            return graph[0][0];
+        if(getM() != getN()){
+            throw new IllegalArgumentException("Must be a A by A matrix, is "+getN()+" by "+getM()+" matrix.");
         }
-        double deter = 0;
-        int mul = 1;
-        for(int i = 0; i != getM(); i++){
-            deter += mul*get(i, 0)*minor(0, i).deter();
-            mul *= -1;
+        if(getN() <= COFACTOR_LIMIT){
+            return view().cofactorDeter();
         }
-        return deter;
+        return lu().deter();
     }
-    /***/
-    public Matrix minor(int n, int m){
-        double[][] array = new double[getN()-1][getM()-1];
-        insertArraySection(array, 0, 0, graph, m, n, 0, 0);//up left
-        insertArraySection(array, m, 0, graph, getM()-m-1, n, 0, m+1);//up right
-        insertArraySection(array, 0, n, graph, m, getN()-n-1, n+1, 0);//down left
-        insertArraySection(array, m, n, graph, getM()-m-1, getN()-n-1, n+1, m+1);//down right
-        return new Matrix(array);
-    
+    /**
+     * Return the LU factorization of this, which can be reused to solve, find the determinant
+     * and invert without factoring again.
+     * 
+     * @throws IllegalArgumentException iff getN() != getM()
+     * @return the LU factorization of this.
+     * 
+     * O(getN()^3)
+    */
+    public LUDecomposition lu(){
+        if(getM() != getN()){
+            throw new IllegalArgumentException("Must be a A by A matrix, is "+getN()+" by "+getM()+" matrix.");
+        }
+        return new LUDecomposition(cloneArray(), getN());
     }
     /**
-     * Insert a part of 2d array 'splice' into 2d array 'array'. From 2d array 'splice' take a 'width'x'height' section located at
-     * (distanceFromLeft, distanceFromTop) and insert it into 'array' at (xPlace, yPlace).
+     * Swap rows 'row_1' and 'row_2' of the row-major array 'array' in place.
      * 
-     * @param array array to insert mini array into
-     * @param xPlace the x cooridinate to place the [0][0] element of the mini array
-     * @param yPlace the y cooridinate to place the [0][0] element of the mini array
-     * @param splice the array to take the mini array from
-     * @param width is the width of the mini array
-     * @param height is the height of the mini array
-     * @param distanceFromTop mini array's distance from the top of splice
-     * @param distanceFromLeft mini array's distance from the left of splice
+     * @param array row-major values with 'width' columns.
+     * @param width number of columns.
+     * @param row_1 first row to swap
+     * @param row_2 second row to swap
      * @modifies array
+     * 
+     * O(width)
     */
-    private static void insertArraySection(double[][] array, int xPlace, int yPlace, double[][] splice, int width, int height, int distanceFromTop, int distanceFromLeft){
-        for (int i = 0; i != height; i++) {
-            for (int j = 0; j != width; j++) {
-                array[yPlace + i][xPlace + j] = splice[distanceFromTop + i][distanceFromLeft + j];
-            }
+    private static void swapRows(double[] array, int width, int row_1, int row_2){
+        int first = row_1*width;
+        int second = row_2*width;
+        for(int i = 0; i != width; i++){
+            double o = array[first + i];
+            array[first + i] = array[second + i];
+            array[second + i] = o;
         }
     }
+    /**
+     * Return this matrix with row 'n' and column 'm' removed.
+     * 
+     * @param n row to remove.
+     * @param m column to remove.
+     * @throws IllegalArgumentException iff 'n' or 'm' is out of range or this has only one row or column.
+     * @return this matrix without row 'n' and column 'm'.
+     * 
+     * O(getN()*getM())
+    */
+    public Matrix minor(int n, int m){
+        return view().minor(n, m).toMatrix();
+    }
+    /**
+     * Return a view of this that shares its values. Transposes, minors and sub-matrices of the view
+     * are made without copying.
+     * 
+     * @return view of this.
+     * 
+     * O(1)
+    */
+    public MatrixView view(){
+        return MatrixView.of(this);
+    }
+    /**
+     * Return a view of the transpose of 'this' without copying.
+     * 
+     * @return view of the transpose of 'this'.
+     * 
+     * O(1)
+    */
+    public MatrixView transposeView(){
+        return view().transpose();
+    }
     /**
      * Return the matrix to the 'power' power of this. Return null if this does not exist.
+     * Large products are multiplied in parallel on the common ForkJoinPool.
      * 
      * @param power the power the matrix is put to
      * @return the matrix to the 'power' power of this. Return null if this does not exist (getM() != getN() or 'power' < 0).
     */
     public Matrix power(int power){
+        return power((long)power);
+    }
+    /**
+     * Return the matrix to the 'power' power of this. Return null if this does not exist.
+     * Uses binary exponentiation over three reused buffers, so high powers take O(log('power'))
+     * products and no new result array per product. Each product still allocates its kernel's packed
+     * panel, and its fork-join tasks when run in parallel. Large products are multiplied in parallel
+     * on the common ForkJoinPool.
+     * 
+     * @param power the power the matrix is put to
+     * @return the matrix to the 'power' power of this. Return null if this does not exist (getM() != getN() or 'power' < 0).
+     * 
+     * O(getN()^3*log('power'))
+    */
+    public Matrix power(long power){
+        return power(power, ForkJoinPool.commonPool());
+    }
+    /**
+     * Return the matrix to the 'power' power of this. Return null if this does not exist.
+     * Large products are multiplied in parallel on 'pool'.
+     * 
+     * @param power the power the matrix is put to
+     * @param pool the pool products are multiplied in
+     * @throws IllegalArgumentException iff 'pool' == null
+     * @return the matrix to the 'power' power of this. Return null if this does not exist (getM() != getN() or 'power' < 0).
+     * 
+     * O(getN()^3*log('power'))
+    */
+    public Matrix power(long power, ForkJoinPool pool){
+        checkNull(pool);
+        int n = getN();
+        return power(power, (a, b, c) -> ParallelMultiply.multiply(pool, pool.getParallelism(), a, n, b, n, c, n, n, n, n));
+    }
+    /**
+     * Return the matrix to the 'power' power of this using Strassen multiplication.
+     * Return null if this does not exist.
+     * 
+     * @param power the power the matrix is put to
+     * @param crossover largest block size multiplied with the classical kernel.
+     * @throws IllegalArgumentException iff 'crossover' < 1
+     * @return the matrix to the 'power' power of this. Return null if this does not exist (getM() != getN() or 'power' < 0).
+     * 
+     * O(getN()^2.81*log('power'))
+    */
+    public Matrix strassenPower(long power, int crossover){
+        checkCrossover(crossover);
+        StrassenMultiply strassen = new StrassenMultiply(getN(), crossover);
+        int n = getN();
+        return power(power, (a, b, c) -> strassen.multiply(a, b, c, n));
+    }
+    /**
+     * Return the matrix to the 'power' power of this, reducing every value modulo 'modulus'. Products are
+     * computed exactly in long arithmetic, so this counts walks or evaluates integer recurrences without
+     * the rounding of double products. Values of the result are between 0 and 'modulus'-1.
+     * 
+     * @param power the power the matrix is put to
+     * @param modulus the modulus values are reduced by.
+     * @throws IllegalArgumentException iff 'modulus' < 1 || 'modulus' > Integer.MAX_VALUE
+     * @throws IllegalArgumentException iff a value of this is not an integer.
+     * @return the matrix to the 'power' power of this modulo 'modulus'. Return null if this does not exist (getM() != getN() or 'power' < 0).
+     * 
+     * O(getN()^3*log('power'))
+    */
+    public Matrix powerMod(long power, long modulus){
+        if(modulus < 1 || modulus > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Modulus must be between 1 and "+Integer.MAX_VALUE+", is "+modulus+".");
+        }
+        if(power < 0 || getM() != getN()){
+            return null;
+        }
+        int n = getN();
+        long[] base = new long[getSize()];
+        for(int i = 0; i != base.length; i++){
+            if(graph[i] != Math.rint(graph[i]) || Double.isInfinite(graph[i])){
+                throw new IllegalArgumentException("Modular power needs integer values, found "+graph[i]+".");
+            }
+            base[i] = floorMod(graph[i], modulus);
+        }
+        long[] result = new long[base.length];
+        for(int i = 0; i != n; i++){
+            result[i*n + i] = 1%modulus;
+        }
+        long[] scratch = new long[base.length];
+        while(power != 0){
+            if((power & 1) == 1){
+                multiplyMod(result, base, scratch, n, modulus);
+                long[] o = result;
+                result = scratch;
+                scratch = o;
+            }
+            power >>>= 1;
+            if(power != 0){
+                multiplyMod(base, base, scratch, n, modulus);
+                long[] o = base;
+                base = scratch;
+                scratch = o;
+            }
+        }
+        double[] newGraph = new double[result.length];
+        for(int i = 0; i != result.length; i++){
+            newGraph[i] = result[i];
+        }
+        return new Matrix(n, n, newGraph);
+    }
+    /**
+     * Return the integer 'value' modulo 'modulus', between 0 and 'modulus'-1, exactly even where 'value'
+     * does not fit in a long.
+     * 
+     * @spec.requires 'value' is a finite integer, 1 <= modulus <= Integer.MAX_VALUE
+     * 
+     * O(1)
+    */
+    private static long floorMod(double value, long modulus){
+        if(Math.abs(value) < 0x1p62){
+            return Math.floorMod((long)value, modulus);
+        }
+        // Beyond 2^62 'value' is its 53 bit mantissa times 2^shift, both reduced exactly.
+        int shift = Math.getExponent(value) - 52;
+        long goal = Math.floorMod((long)Math.scalb(value, -shift), modulus);
+        for(int i = 0; i != shift; i++){
+            goal = goal*2%modulus;
+        }
+        return goal;
+    }
+    /**
+     * Multiplies two square row-major matrices into 'c'.
+     * 
+     * @spec.requires 'c' does not share storage with 'a' or 'b'.
+     * @modifies c
+    */
+    private interface SquareMultiply {
+        void multiply(double[] a, double[] b, double[] c);
+    }
+    /**
+     * Returns this to the power of 'power' by binary exponentiation. The running result, the
+     * repeatedly squared base and one scratch buffer are swapped after each product instead of
+     * allocating new matrices.
+     * 
+     * @param power the power we are finding for this
+     * @param multiply how two matrices are multiplied
+     * @return this to the 'power' power. Return null if this does not exist (getM() != getN() or 'power' < 0).
+     * 
+     * O(getN()^3*log('power'))
+    */
+    private Matrix power(long power, SquareMultiply multiply){
         if(power == 1){
             return this;
         }if(power == 0){
@@ -161,24 +375,77 @@ public class Matrix{
         }if(power < 0 || getM() != getN()){
             return null;
         }
-        return power(power, this);
+        double[] base = cloneArray();
+        double[] result = null;
+        double[] scratch = new double[base.length];
+        while(true){
+            if((power & 1) == 1){
+                if(result == null){
+                    result = base.clone();
+                }else{
+                    multiply.multiply(result, base, scratch);
+                    double[] o = result;
+                    result = scratch;
+                    scratch = o;
+                }
+            }
+            power >>>= 1;
+            if(power == 0){
+                return new Matrix(getN(), getN(), result);
+            }
+            multiply.multiply(base, base, scratch);
+            double[] o = base;
+            base = scratch;
+            scratch = o;
+        }
     }
     /**
-     * Returns 'matrix' to the power of 'power'
+     * Compute C = A*B mod 'modulus' for 'n'X'n' row-major A and B with values in [0, 'modulus').
+     * Rows are accumulated without reduction for as many terms as cannot overflow a long.
      * 
-     * @param power the power we are finding for matrix
-     * @param matrix the matrix we are taking the power 'power' of.
-     * @requires 'power' > 0
-     * @requires 'matrix.getM()' == 'matrix.getN()'
-     * @return the matrix 'matrix' to the 'power' power.
+     * @spec.requires 1 <= 'modulus' <= Integer.MAX_VALUE, 'c' does not share storage with 'a' or 'b'.
+     * @modifies c
+     * 
+     * O(n^3)
     */
-    private Matrix power(int power, Matrix matrix){
-        if(power == 1){
-            return matrix;
-        }if(power%2 == 1){
-            return matrix.matrixMultiply(power(power-1, matrix));
+    private static void multiplyMod(long[] a, long[] b, long[] c, int n, long modulus){
+        long largest = (modulus - 1)*(modulus - 1);
+        long terms = largest == 0 ? n : Long.MAX_VALUE/largest - 1;
+        for(int i = 0; i != n; i++){
+            int row = i*n;
+            Arrays.fill(c, row, row + n, 0);
+            long added = 0;
+            for(int k = 0; k != n; k++){
+                long value = a[row + k];
+                if(value == 0){
+                    continue;
+                }
+                int other = k*n;
+                for(int j = 0; j != n; j++){
+                    c[row + j] += value*b[other + j];
+                }
+                if(++added == terms){
+                    for(int j = 0; j != n; j++){
+                        c[row + j] %= modulus;
+                    }
+                    added = 0;
+                }
+            }
+            for(int j = 0; j != n; j++){
+                c[row + j] %= modulus;
+            }
         }
-        return power(power/2, matrix.matrixMultiply(matrix));
+    }
+    /**
+     * Return an unevaluated expression for this. Operations on the expression are recorded and
+     * fused into one pass over the data by LazyMatrix.evaluate().
+     * 
+     * @return expression that evaluates to this.
+     * 
+     * O(1)
+    */
+    public LazyMatrix lazy(){
+        return LazyMatrix.of(this);
     }
     /**
      * Return the transpose of 'this'.
@@ -186,13 +453,14 @@ public class Matrix{
      * @return transpose of 'this'.
     */
     public Matrix transpose(){
-        double[][] transpose = new double[getM()][getN()];
+        double[] transpose = new double[getSize()];
+        int place = 0;
         for(int i = 0; i != getM(); i++){
             for(int j = 0; j != getN(); j++){
-                transpose[i][j] = graph[j][i];
+                transpose[place++] = graph[j*width + i];
             }
         }
-        return new Matrix(transpose);
+        return new Matrix(getM(), getN(), transpose);
     }
     /**
      * Throw IllegalArgumentException if input is null
@@ -228,17 +496,11 @@ public class Matrix{
         if(sideLength <= 0){
             throw new IllegalArgumentException("Side length must be atleast one.");
         }
-        double[][] goal = new double[sideLength][sideLength];
+        double[] goal = new double[sideLength*sideLength];
         for(int i = 0; i != sideLength; i++){
-            for(int j = 0; j != sideLength; j++){
-                if(i == j){
-                    goal[i][j] = 1;
-                }else{
-                    goal[i][j] = 0;
-                }
-            }
+            goal[i*sideLength + i] = 1;
         }
-        return new Matrix(goal);
+        return new Matrix(sideLength, sideLength, goal);
     }
     /**
      * Return the result of matrix multiplication between this vector and 'matrix'.
@@ -256,12 +518,104 @@ public class Matrix{
         if(getM() != matrix.length){
             throw new IllegalArgumentException("not AXB times BX1 matricies.");
         }
-        double[][] newMatrix = new double[matrix.length][1];
-        for(int i = 0; i != matrix.length; i++){
-            newMatrix[i][0] = matrix[i];
+        return new Matrix(getN(), 1, multiplyVector(matrix, new double[getN()]));
+    }
+    /**
+     * Return the product of this and the column vector 'vector'.
+     * 
+     * @param vector vector to multiply this by.
+     * @throws IllegalArgumentException iff 'vector' == null || vector.length != getM().
+     * @return new array of length getN() holding this*'vector'.
+     * 
+     * O(getN()*getM())
+    */
+    public double[] multiplyVector(double[] vector){
+        checkNull(vector);
+        return multiplyVector(vector, new double[getN()]);
+    }
+    /**
+     * Write the product of this and the column vector 'vector' into 'goal' without allocating.
+     * 
+     * @param vector vector to multiply this by.
+     * @param goal array of length getN() the product is written to.
+     * @throws IllegalArgumentException iff 'vector' == null || 'goal' == null.
+     * @throws IllegalArgumentException iff vector.length != getM() || goal.length != getN() || 'vector' == 'goal'.
+     * @modifies goal
+     * @return 'goal'
+     * 
+     * O(getN()*getM())
+    */
+    public double[] multiplyVector(double[] vector, double[] goal){
+        checkNull(vector);
+        checkNull(goal);
+        if(vector.length != getM() || goal.length != getN()){
+            throw new IllegalArgumentException("Must multiply a vector of length "+getM()+" into one of length "+getN()+
+            ", are "+vector.length+" and "+goal.length+".");
+        }
+        if(vector == goal){
+            throw new IllegalArgumentException("Input and output vectors must be different arrays.");
         }
-        Matrix mat = new Matrix(newMatrix);
-        return matrixMultiply(mat);
+        MatrixKernels.multiplyVector(graph, 0, width, vector, goal, getN(), getM());
+        return goal;
+    }
+    /**
+     * Return the product of this and every vector of 'vectors'. See multiplyVectors(double[], int, double[]).
+     * 
+     * @param vectors vectors of length getM() to multiply this by.
+     * @throws IllegalArgumentException iff 'vectors' == null, a vector is null or a vector's length != getM().
+     * @return array holding this*vectors[i] in place i.
+     * 
+     * O(vectors.length*getN()*getM())
+    */
+    public double[][] multiplyVectors(double[][] vectors){
+        checkNull(vectors);
+        double[] packed = new double[vectors.length*getM()];
+        for(int i = 0; i != vectors.length; i++){
+            checkNull(vectors[i]);
+            if(vectors[i].length != getM()){
+                throw new IllegalArgumentException("Vector "+i+" must have length "+getM()+", has "+vectors[i].length+".");
+            }
+            System.arraycopy(vectors[i], 0, packed, i*getM(), getM());
+        }
+        double[] products = multiplyVectors(packed, vectors.length, new double[vectors.length*getN()]);
+        double[][] goal = new double[vectors.length][getN()];
+        for(int i = 0; i != vectors.length; i++){
+            System.arraycopy(products, i*getN(), goal[i], 0, getN());
+        }
+        return goal;
+    }
+    /**
+     * Write the product of this and each of 'count' vectors into 'goal' without allocating. The vectors
+     * are stored one after another in 'vectors', and product i is written to goal[i*getN()] to
+     * goal[(i+1)*getN()-1]. The batch runs as one matrix product with the vectors as rows, so each
+     * block of this is loaded into cache once for many vectors instead of once per vector.
+     * 
+     * @param vectors 'count' vectors of length getM() stored back to back.
+     * @param count number of vectors.
+     * @param goal array of length 'count'*getN() the products are written to.
+     * @throws IllegalArgumentException iff 'vectors' == null || 'goal' == null || 'vectors' == 'goal'.
+     * @throws IllegalArgumentException iff 'count' < 0 || vectors.length != count*getM() || goal.length != count*getN().
+     * @modifies goal
+     * @return 'goal'
+     * 
+     * O(count*getN()*getM())
+    */
+    public double[] multiplyVectors(double[] vectors, int count, double[] goal){
+        checkNull(vectors);
+        checkNull(goal);
+        if(count < 0 || vectors.length != (long)count*getM() || goal.length != (long)count*getN()){
+            throw new IllegalArgumentException("Must multiply "+count+" vectors of length "+getM()+" into "+count+" of length "+getN()+".");
+        }
+        if(vectors == goal){
+            throw new IllegalArgumentException("Input and output vectors must be different arrays.");
+        }
+        if(count == 1){
+            MatrixKernels.multiplyVector(graph, 0, width, vectors, goal, getN(), getM());
+            return goal;
+        }
+        // goal = vectors*this^T, where this^T is read in place by swapping its strides.
+        MatrixKernels.multiplyStrided(vectors, 0, getM(), 1, graph, 0, 1, width, goal, 0, getN(), count, getM(), getN(), 0, count);
+        return goal;
     }
     /**
      * Get graph height.
@@ -270,7 +624,7 @@ public class Matrix{
      * O(1)
     */
     public int getN(){
-        return graph.length;
+        return height;
     }
         /**
      * Get graph width.
@@ -279,59 +633,186 @@ public class Matrix{
      * O(1)
     */
     public int getM(){
-        return graph[0].length;
+        return width;
     }
     /**
      * Returns the matrix multiple of two matrices. Returns null is this is impossible.
+     * Large products whose left operand is sparse by SparseMatrix.isSparse run as CSR times dense.
      * 
      * @param matrix value to multiply this by.
      * @throws IllegalArgumentException Iff 'matrix' == null.
      * @return matrix multiple of this and 'matrix'.
      * @return null if not AXB times BXC matricies
      * 
-     * O(getN()*getM()*matrix.getN())
+     * O(getN()*getM()*matrix.getM()), O(nonzeros of this*matrix.getM()) if this is sparse
     */
     public Matrix matrixMultiply(Matrix matrix){
         checkNull(matrix);
         if(getM() != matrix.getN()){
             return null;
         }
-        double[][] newGraph = new double[getN()][matrix.getM()];
-        for(int k = 0; k != matrix.getM(); k++){
-            for(int i = 0; i != getN(); i++){
-                for(int j = 0; j != getM(); j++){
-                    newGraph[i][k] += graph[i][j]*matrix.get(k, j);
-                }
-            }
+        int width = matrix.getM();
+        // The sparsity check reads this once, which is small next to a product with a wide 'matrix'.
+        if((long)getN()*getM()*width >= SparseMatrix.SPARSE_PRODUCT_THRESHOLD && width >= 8 && SparseMatrix.isSparse(this)){
+            return CsrMatrix.fromDense(this).matrixMultiply(matrix);
         }
-        Matrix goal = new Matrix(newGraph);
+        double[] newGraph = new double[getN()*width];
+        MatrixKernels.multiply(graph, 0, getM(), matrix.graph, 0, width, newGraph, 0, width, getN(), getM(), width, 0, getN());
+        Matrix goal = new Matrix(getN(), width, newGraph);
         return goal;
     }
     /**
-     * Clone doule[][] 'original'
+     * Returns the matrix multiple of two matrices computed on 'pool'. Returns null is this is impossible.
+     * The rows of the result are split into pool.getParallelism() blocks.
+     * 
+     * @param matrix value to multiply this by.
+     * @param pool the pool the blocks run in.
+     * @throws IllegalArgumentException Iff 'matrix' == null || 'pool' == null.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     * 
+     * O(getN()*getM()*matrix.getM())
+    */
+    public Matrix matrixMultiply(Matrix matrix, ForkJoinPool pool){
+        checkNull(pool);
+        return matrixMultiply(matrix, pool, pool.getParallelism());
+    }
+    /**
+     * Returns the matrix multiple of two matrices computed on 'pool'. Returns null is this is impossible.
+     * The rows of the result are split into 'parallelism' blocks that run as separate tasks.
+     * Small products are computed on the calling thread.
+     * 
+     * @param matrix value to multiply this by.
+     * @param pool the pool the blocks run in.
+     * @param parallelism number of blocks the rows of the result are split into.
+     * @throws IllegalArgumentException Iff 'matrix' == null || 'pool' == null.
+     * @throws IllegalArgumentException Iff 'parallelism' < 1.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     * 
+     * O(getN()*getM()*matrix.getM())
+    */
+    public Matrix matrixMultiply(Matrix matrix, ForkJoinPool pool, int parallelism){
+        checkNull(matrix);
+        checkNull(pool);
+        if(parallelism < 1){
+            throw new IllegalArgumentException("Parallelism must be atleast one, is "+parallelism+".");
+        }
+        if(getM() != matrix.getN()){
+            return null;
+        }
+        int width = matrix.getM();
+        double[] newGraph = new double[getN()*width];
+        ParallelMultiply.multiply(pool, parallelism, graph, getM(), matrix.graph, width, newGraph, width, getN(), getM(), width);
+        return new Matrix(getN(), width, newGraph);
+    }
+    /**
+     * Returns the matrix multiple of two matrices using Strassen multiplication for square operands
+     * of more than StrassenMultiply.DEFAULT_CROSSOVER rows. Returns null is this is impossible.
+     * 
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException Iff 'matrix' == null.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     * 
+     * O(getN()^2.81) for square operands, O(getN()*getM()*matrix.getM()) otherwise
+    */
+    public Matrix strassenMultiply(Matrix matrix){
+        return strassenMultiply(matrix, StrassenMultiply.DEFAULT_CROSSOVER);
+    }
+    /**
+     * Returns the matrix multiple of two matrices using Strassen multiplication for square operands.
+     * Blocks of 'crossover' or fewer rows are multiplied with the classical kernel, and sizes that are not
+     * a power of two are padded with zeros. Non-square operands use matrixMultiply. Returns null is this is impossible.
+     * 
+     * @param matrix value to multiply this by.
+     * @param crossover largest block size multiplied with the classical kernel.
+     * @throws IllegalArgumentException Iff 'matrix' == null.
+     * @throws IllegalArgumentException Iff 'crossover' < 1.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     * 
+     * O(getN()^2.81) for square operands, O(getN()*getM()*matrix.getM()) otherwise
+    */
+    public Matrix strassenMultiply(Matrix matrix, int crossover){
+        checkNull(matrix);
+        checkCrossover(crossover);
+        if(getM() != getN() || matrix.getM() != matrix.getN() || getN() <= crossover){
+            return matrixMultiply(matrix);
+        }
+        return strassenMultiply(matrix, new StrassenMultiply(getN(), crossover));
+    }
+    /**
+     * Returns the matrix multiple of two square matrices using 'strassen' and its scratch buffers.
+     * 
+     * @param matrix value to multiply this by.
+     * @param strassen Strassen multiplier built for getN() X getN() operands.
+     * @requires 'matrix' != null, getN() == getM() == matrix.getN() == matrix.getM()
+     * @return matrix multiple of this and 'matrix'.
+     * 
+     * O(getN()^2.81)
+    */
+    private Matrix strassenMultiply(Matrix matrix, StrassenMultiply strassen){
+        double[] newGraph = new double[getSize()];
+        strassen.multiply(sharedArray(), matrix.sharedArray(), newGraph, getN());
+        return new Matrix(getN(), getN(), newGraph);
+    }
+    /**
+     * Throw IllegalArgumentException if 'crossover' is not a valid block size.
+     * 
+     * @param crossover block size to check.
+     * @throws IllegalArgumentException iff 'crossover' < 1
+     * 
+     * O(1)
+    */
+    private static void checkCrossover(int crossover){
+        if(crossover < 1){
+            throw new IllegalArgumentException("Crossover must be atleast one, is "+crossover+".");
+        }
+    }
+    /**
+     * Clone doule[][] 'original' into a single row-major array.
      * 
      * @param original double[][] to be clones.
      * @spec.requires no NaN inputs.
      * @throws IllegalArgumentException iff 'original' == null
-     * @return cloned double[][]
+     * @return cloned row-major double[] of length original.length*original[0].length
      * 
      * O(original.length*original[0].length)
     */
-    private static double[][] cloneArray(double[][] original) {
+    private static double[] cloneArray(double[][] original) {
         checkNull(original);
         int rows = original.length;
         int columns = original[0].length;
     
-        double[][] copy = new double[rows][columns];
+        double[] copy = new double[rows*columns];
     
         for (int i = 0; i != rows; i++) {
-            for(int j = 0; j != columns; j++){
-                copy[i][j] = original[i][j];
-            }
+            System.arraycopy(original[i], 0, copy, i*columns, columns);
         }
     
         return copy;
     }
+    /**
+     * Copy the values of this matrix into a new row-major array.
+     * 
+     * @return row-major copy of this matrix of length getSize().
+     * 
+     * O(getN()*getM())
+    */
+    double[] cloneArray(){
+        return graph.clone();
+    }
+    /**
+     * Return the row-major backing array of this matrix without copying it.
+     * 
+     * @return row-major values of this matrix of length getSize(), must not be modified.
+     * 
+     * O(1)
+    */
+    double[] sharedArray(){
+        return graph;
+    }
     /**
      * Return Matrix wih scaled row. Row 'y' is scaled by 'scale'.
      * @param y row to scale.
@@ -344,12 +825,7 @@ public class Matrix{
     */
     public Matrix scale(int y, double scale){
         isARow(y);
-        double[][] goalArray = cloneArray(graph);
-        for(int i = 0; i != getM(); i++){
-            goalArray[y][i] *= scale;
-        }
-        Matrix goal = new Matrix(goalArray);
-        return goal;
+        return new MatrixBuilder(this).scale(y, scale).freeze();
     }
     /**
      * Return scaled Matrix. Scaled by 'scale'.
@@ -362,14 +838,7 @@ public class Matrix{
      * O(getN()*getM())
     */
     public Matrix scale(double scale){
-        double[][] goalArray = cloneArray(graph);
-        for(int i = 0; i != getM(); i++){
-            for(int j = 0; j != getN(); j++){
-                goalArray[j][i] *= scale;
-            }
-        }
-        Matrix goal = new Matrix(goalArray);
-        return goal;
+        return new MatrixBuilder(this).scale(scale).freeze();
     }
     /**
      * Add matrix 'mat' to current matrix and return new matrix without
@@ -383,13 +852,7 @@ public class Matrix{
     */
     public Matrix add(Matrix mat){
         checkInRange(mat);
-        double[][] goal =  new double[getN()][getM()];
-        for(int i = 0; i != getN(); i++){
-            for(int j = 0; j != getM(); j++){
-                goal[i][j] = graph[i][j] + mat.get(j, i);
-            }
-        }
-        return new Matrix(goal);
+        return new MatrixBuilder(this).add(mat).freeze();
     }
     /**
      * Return Matrix with row in place 'place' replaced with 'row'.
@@ -397,18 +860,14 @@ public class Matrix{
      * @param row new row in place 'place'.
      * @param place where new row is to be placed.
      * @requires no null or NaN inputs.
-     * @throws IllegalArgumentException Iff 'row' < 0 || 'row' >= this.getN().
+     * @throws IllegalArgumentException Iff 'place' < 0 || 'place' >= this.getN() || row.length > this.getM().
      * @return matrix with row replace.
      * 
      * O(getN()*getM())
     */
     public Matrix replaceRow(double[] row, int place){
         isARow(place);
-        double[][] array = cloneArray(graph);
-        for(int i = 0; i != row.length; i++){
-            array[place][i] = row[i];
-        }
-        return new Matrix(array);
+        return new MatrixBuilder(this).replaceRow(row, place).freeze();
     }
     /**
      * Get number in place 'x' 'y'.
@@ -417,7 +876,7 @@ public class Matrix{
      * O(1)
     */
     public double get(int x, int y){
-        return graph[y][x];
+        return graph[y*width + x];
     }
     /**
      * Throws exception iff dimensions of Matrix 'matrix' are not identical to the dimensions of this.
@@ -445,13 +904,7 @@ public class Matrix{
     */
     public double dotProduct(Matrix matrix){
         checkInRange(matrix);
-        double total = 0;
-        for(int i = 0; i != getN(); i++){
-            for(int j = 0; j != getM(); j++){
-                total += graph[i][j] * matrix.get(j, i);
-            }
-        }
-        return total;
+        return ArrayKernels.INSTANCE.dot(graph, matrix.graph, getSize());
     }
     /**
      * Display the matrix in the terminal.
@@ -461,44 +914,96 @@ public class Matrix{
     public void display(){
         for(int i = 0; i != getN(); i++){
             for(int j = 0; j != getM(); j++){
-                System.out.print(graph[i][j]+" ");
+                System.out.print(graph[i*width + j]+" ");
             }
             System.out.println();
         }
     }
     /**
-     * Find and return the inverse of 'this'.
+     * Find and return the inverse of 'this' by Gauss-Jordan elimination with partial pivoting.
+     * The elimination runs in place on the array that becomes the result. This is singular when a pivot
+     * is no larger than getN() units in the last place of the largest absolute value in this.
      * 
      * @return the inverse of this, return null if none exists.
+     * 
+     * O(getN()^3)
     */
     public Matrix inverse(){
         //Varify square matrix
         if(getM() != getN()){
             return null;
         }
-        //Quick formula
-        if(getM() == 2){
-            // a b
-            // c d
-            double a = get(0, 0);
-            double b = get(1, 0);
-            double c = get(0, 1);
-            double d = get(1, 1);
-            // 1/(ad-bc)
-            double scale = (a*d-b*c);
-            if(scale < 0.0001 && scale > -0.0001){
+        int n = getN();
+        double[] inverse = cloneArray();
+        double largest = 0;
+        for(int i = 0; i != inverse.length; i++){
+            largest = Math.max(largest, Math.abs(inverse[i]));
+        }
+        double tolerance = Math.ulp(largest)*n;
+        // pivots[k] is the row swapped into row k before column k was eliminated.
+        int[] pivots = new int[n];
+        for(int k = 0; k != n; k++){
+            int pivot = k;
+            double pivotSize = Math.abs(inverse[k*n + k]);
+            for(int i = k + 1; i != n; i++){
+                double value = Math.abs(inverse[i*n + k]);
+                if(value > pivotSize){
+                    pivotSize = value;
+                    pivot = i;
+                }
+            }
+            if(pivotSize <= tolerance){
                 return null;
             }
-            double[][] matrix = new double[2][2];
-
-            matrix[0][0] = d;
-            matrix[1][0] = -c;
-            matrix[0][1] = -b;
-            matrix[1][1] = a;
-
-            return (new Matrix(matrix)).scale(1/scale);
+            pivots[k] = pivot;
+            if(pivot != k){
+                swapRows(inverse, n, k, pivot);
+            }
+            // Column k of the identity takes the place of column k of this as it is eliminated.
+            int pivotRow = k*n;
+            double scale = 1/inverse[pivotRow + k];
+            inverse[pivotRow + k] = 1;
+            for(int j = 0; j != n; j++){
+                inverse[pivotRow + j] *= scale;
+            }
+            for(int i = 0; i != n; i++){
+                int row = i*n;
+                double factor = inverse[row + k];
+                if(i == k || factor == 0){
+                    continue;
+                }
+                inverse[row + k] = 0;
+                for(int j = 0; j != n; j++){
+                    inverse[row + j] -= factor*inverse[pivotRow + j];
+                }
+            }
+        }
+        // Row swaps of this are column swaps of the inverse, undone in reverse order.
+        for(int k = n - 1; k >= 0; k--){
+            if(pivots[k] != k){
+                swapColumns(inverse, n, k, pivots[k]);
+            }
+        }
+        return new Matrix(n, n, inverse);
+    }
+    /**
+     * Swap columns 'column_1' and 'column_2' of the row-major 'width'X'width' array 'array' in place.
+     * 
+     * @param array row-major values with 'width' rows and columns.
+     * @param width number of rows and columns.
+     * @param column_1 first column to swap
+     * @param column_2 second column to swap
+     * @modifies array
+     * 
+     * O(width)
+    */
+    private static void swapColumns(double[] array, int width, int column_1, int column_2){
+        for(int i = 0; i != width; i++){
+            int row = i*width;
+            double o = array[row + column_1];
+            array[row + column_1] = array[row + column_2];
+            array[row + column_2] = o;
         }
-        throw new RuntimeException("Method not Implemented yet!");
     }
     /**
      * Return place of leading variable. If non exists, return -1.
@@ -546,9 +1051,7 @@ public class Matrix{
     public double[] getRow(int row){
         isARow(row);
         double[] goal = new double[getM()];
-        for(int i = 0; i != getM(); i++){
-            goal[i] = graph[row][i];
-        }
+        System.arraycopy(graph, row*width, goal, 0, getM());
         return goal;
     }
     /**
@@ -557,10 +1060,11 @@ public class Matrix{
      * (Pivot in every row)
      * 
      * @return true iff this is onto.
+     * 
+     * O(getN()*getM()*min(getN(), getM()))
     */
     public boolean isOnto(){
-        // Test scaler
-        throw new RuntimeException("Method not Implemented yet!");
+        return rank() == getN();
     }
     /**
      * Return true if this is one-to-one.
@@ -568,17 +1072,41 @@ public class Matrix{
      * (Pivot in every column)
      * 
      * @return true iff this is one-to-one.
+     * 
+     * O(getN()*getM()*min(getN(), getM()))
     */
     public boolean isOneToOne(){
-        // Test scaler
-        throw new RuntimeException("Method not Implemented yet!");
+        return rank() == getM();
+    }
+    /**
+     * Return the rank of this, the number of pivots in its echelon form.
+     * 
+     * @return the rank of this.
+     * 
+     * O(getN()*getM()*min(getN(), getM()))
+    */
+    public int rank(){
+        return echelon().getRank();
     }
     /**
      * Return a Matrix identical to this matrix, but in reduced echelon form.
-     * //
+     * 
+     * @return this in reduced echelon form.
+     * 
+     * O(getN()*getM()*min(getN(), getM()))
     */
     public Matrix putInEchelonForm(){
-        throw new RuntimeException("Method not Implemented yet!");
+        return echelon().getMatrix();
+    }
+    /**
+     * Return the reduced echelon form of this together with its pivot columns and rank.
+     * 
+     * @return the reduced echelon form of this.
+     * 
+     * O(getN()*getM()*min(getN(), getM()))
+    */
+    public EchelonForm echelon(){
+        return new EchelonForm(cloneArray(), getN(), getM());
     }
     /**
      * Return a matrix with two equations swapped. The equation in place 'row_1' and and 'row_2'.
@@ -594,13 +1122,7 @@ public class Matrix{
     public Matrix swap(int row_1, int row_2){
         isARow(row_1);
         isARow(row_2);
-        double[][] matrix = cloneArray(graph);
-        for(int i = 0; i != getM(); i++){
-            double o = matrix[row_1][i];
-            matrix[row_1][i] = matrix[row_2][i];
-            matrix[row_2][i] = o;
-        }
-        return new Matrix(matrix);
+        return new MatrixBuilder(this).swap(row_1, row_2).freeze();
     }
     /**
      * Return number of elements in this matrix
@@ -618,17 +1140,7 @@ public class Matrix{
      * @return this except all values are 0 or positive.
     */
     public Matrix abs(){
-        double[][] array = new double[getN()][getM()];
-        for(int i = 0; i != getN(); i++){
-            for(int j = 0; j != getM(); j++){
-                double value = get(i, j);
-                if(value < 0){
-                    value *= -1;
-                }
-                array[j][i] = value;
-            }
-        }
-        return new Matrix(array);
+        return new MatrixBuilder(this).abs().freeze();
     }
     /***/
     public Double getMax(){
@@ -639,15 +1151,10 @@ public class Matrix{
         return getMinOrMax(false);
     }
     private Double getMinOrMax(boolean max){
-        Double val = get(0,0);
-        for(int i = 0; i != getN(); i++){
-            for(int j = 0; j != getM(); j++){
-                if(val < get(i, j) == max){
-                    val = get(i, j);
-                }
-            }
+        if(max){
+            return ArrayKernels.INSTANCE.max(graph, getSize());
         }
-        return val;
+        return ArrayKernels.INSTANCE.min(graph, getSize());
     }
     /**
      * Get a copy of the current matrix
@@ -655,17 +1162,15 @@ public class Matrix{
      * @return Matrix 'this' as double[][]
     */
     public double[][] getDoubleArray(){
-        return cloneArray(graph);
+        double[][] copy = new double[getN()][getM()];
+        for(int i = 0; i != getN(); i++){
+            System.arraycopy(graph, i*width, copy[i], 0, getM());
+        }
+        return copy;
     }
     /***/
     public Matrix add(double value){
-        double[][] array = new double[getN()][getM()];
-        for(int i = 0; i != getN(); i++){
-            for(int j = 0; j != getM(); j++){
-                array[i][j] = get(j, i) + value;
-            }
-        }
-        return new Matrix(array);
+        return new MatrixBuilder(this).add(value).freeze();
     }
     /**
      * Standard equality opperator.
@@ -691,15 +1196,46 @@ public class Matrix{
         }
         return true;
     }
-    /***/
+    /**
+     * Returns a hash of the dimensions of this. equals() compares values within a tolerance, so values
+     * can not be hashed without breaking equal matrices having equal hashes. Use fingerprint() to key
+     * matrices by their exact values.
+     * 
+     * O(1)
+    */
     @Override
     public int hashCode(){
-        int total = 0;
-        for(int i = 0; i != getM(); i++){
-            for(int j = 0; j != getN(); j++){
-                total += Math.pow(2,get(i, j))*Math.pow(3, i)*Math.pow(5, j);
+        return 31*height + width;
+    }
+    /**
+     * Return a 64-bit fingerprint of the dimensions and exact values of this. Matrices with the same
+     * dimensions and values have the same fingerprint, and different ones collide with probability
+     * about 2^-64. The fingerprint is computed once, since this is immutable.
+     * 
+     * @return fingerprint of this.
+     * 
+     * O(getN()*getM()) on the first call, O(1) afterwards
+    */
+    public long fingerprint(){
+        long fingerprint = this.fingerprint;
+        if(fingerprint == 0){
+            fingerprint = mix(height*0x9E3779B97F4A7C15L + width);
+            for(int i = 0; i != getSize(); i++){
+                fingerprint = fingerprint*0x9E3779B97F4A7C15L + mix(Double.doubleToLongBits(graph[i]));
             }
+            fingerprint = mix(fingerprint);
+            this.fingerprint = fingerprint;
         }
-        return total;
+        return fingerprint;
+    }
+    /**
+     * Return 'value' with its bits spread over the whole long, the finalizer of SplitMix64.
+     * 
+     * O(1)
+    */
+    private static long mix(long value){
+        value = (value ^ (value >>> 30))*0xBF58476D1CE4E5B9L;
+        value = (value ^ (value >>> 27))*0x94D049BB133111EBL;
+        return value ^ (value >>> 31);
     }
 }
\ No newline at end of file
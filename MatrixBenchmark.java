@@ -0,0 +1,145 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Benchmarks the hot paths of Matrix and WorkList and prints one line per case with throughput,
+ * latency percentiles and heap allocation per operation.
+ *
+ * Every case is warmed up for WARMUP_NANOS and then timed one operation at a time for MEASURE_NANOS.
+ * Allocation is read from the thread's allocated byte counter around the measured operations. Samples
+ * go into an array allocated before the counter is read, and the bytes the counter allocates itself
+ * are taken off, so an operation that allocates nothing reports 0.
+ * Results are fed into 'sink' so the JIT cannot drop the work.
+ *
+ * Arguments, all optional:
+ *   sizes=64,128,256   dimensions of the square matrices
+ *   densities=1,0.05   fraction of nonzero values
+ *   jobs=6,8,10        sizes of the WorkList problems
+ *   filter=multiply    only run cases whose name contains this text
+*/
+final class MatrixBenchmark {
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 2_000_000_000L;
+    // Cases are stopped after this many operations even if MEASURE_NANOS has not passed.
+    private static final int MAX_SAMPLES = 1_000_000;
+    // Largest problems the exponential solvers are run on.
+    private static final int BRUTE_FORCE_LIMIT = 9;
+    private static final int BRANCH_AND_BOUND_LIMIT = 40;
+    private static volatile double sink;
+
+    private MatrixBenchmark(){
+    }
+    public static void main(String[] args){
+        int[] sizes = {64, 128, 256};
+        double[] densities = {1, 0.05};
+        int[] jobs = {6, 8, 10};
+        String filter = "";
+        for(String arg: args){
+            String[] pair = arg.split("=", 2);
+            if(pair.length != 2){
+                throw new IllegalArgumentException("Arguments must look like name=value, is "+arg+".");
+            }
+            switch(pair[0]){
+                case "sizes":
+                    sizes = Arrays.stream(pair[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "densities":
+                    densities = Arrays.stream(pair[1].split(",")).mapToDouble(Double::parseDouble).toArray();
+                    break;
+                case "jobs":
+                    jobs = Arrays.stream(pair[1].split(",")).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "filter":
+                    filter = pair[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument "+pair[0]+".");
+            }
+        }
+        MatrixGenerator generator = new MatrixGenerator(1);
+        System.out.println(String.format("%-28s %12s %10s %10s %10s %12s", "case", "ops/s", "p50 us", "p90 us", "p99 us", "alloc B/op"));
+        for(int size: sizes){
+            for(double density: densities){
+                Matrix a = generator.sparse(size, size, density, -10, 10);
+                Matrix b = generator.sparse(size, size, density, -10, 10);
+                String params = " n="+size+" d="+density;
+                run("matrixMultiply"+params, filter, () -> a.matrixMultiply(b));
+                run("power(8)"+params, filter, () -> a.power(8));
+                run("deter"+params, filter, () -> a.deter());
+                run("inverse"+params, filter, () -> a.inverse());
+                run("transpose"+params, filter, () -> a.transpose());
+                run("add"+params, filter, () -> a.add(b));
+                run("scale"+params, filter, () -> a.scale(1.5));
+            }
+        }
+        for(int size: jobs){
+            WorkList work = new WorkList(generator.uniform(size, size, 0, 10));
+            String params = " jobs="+size;
+            run("munkres"+params, filter, () -> work.munkres());
+            if(size <= BRANCH_AND_BOUND_LIMIT){
+                run("branchAndBound"+params, filter, () -> work.branchAndBound(true));
+            }
+            if(size <= BRUTE_FORCE_LIMIT){
+                run("optimizeBruteForce"+params, filter, () -> work.optimizeBruteForce());
+            }
+        }
+    }
+    /**
+     * Warm up and measure 'operation' and print its results, unless 'name' does not contain 'filter'.
+    */
+    private static void run(String name, String filter, Supplier<Object> operation){
+        if(!name.contains(filter)){
+            return;
+        }
+        long end = System.nanoTime() + WARMUP_NANOS;
+        while(System.nanoTime() < end){
+            consume(operation.get());
+        }
+        long[] samples = new long[MAX_SAMPLES];
+        int count = 0;
+        // Bytes one read of the counter allocates, read twice in a row.
+        long overhead = -allocatedBytes() + allocatedBytes();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        end = start + MEASURE_NANOS;
+        long now = start;
+        while(now < end && count != MAX_SAMPLES){
+            consume(operation.get());
+            long next = System.nanoTime();
+            samples[count++] = next - now;
+            now = next;
+        }
+        long after = allocatedBytes();
+        Arrays.sort(samples, 0, count);
+        System.out.println(String.format("%-28s %12.1f %10.1f %10.1f %10.1f %12d", name,
+                count*1e9/(now - start), percentile(samples, count, 0.5), percentile(samples, count, 0.9), percentile(samples, count, 0.99),
+                allocated == -1 ? -1 : Math.max(0, after - allocated - overhead)/count));
+    }
+    /**
+     * Return percentile 'fraction' of the first 'count' sorted nanosecond samples of 'sorted' in microseconds.
+    */
+    private static double percentile(long[] sorted, int count, double fraction){
+        int place = (int)Math.min(count - 1, Math.ceil(fraction*count) - 1);
+        return sorted[Math.max(0, place)]/1e3;
+    }
+    /**
+     * Return the bytes allocated on the heap by this thread so far, or -1 if the JVM does not count them.
+    */
+    private static long allocatedBytes(){
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if(bean instanceof com.sun.management.ThreadMXBean){
+            return ((com.sun.management.ThreadMXBean)bean).getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+    private static void consume(Object result){
+        if(result instanceof Matrix){
+            sink += ((Matrix)result).get(0, 0);
+        }else if(result instanceof int[]){
+            sink += ((int[])result)[0];
+        }else if(result instanceof Double){
+            sink += (Double)result;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/**
+ * A mutable matrix that supports the row and element operations of Matrix in place.
+ * freeze() hands the values to an immutable Matrix without copying them, after which the
+ * builder can no longer be used.
+ */
+// graph[y*width + x], graph[height][width], graph[N][M]
+public class MatrixBuilder {
+    private double[] graph;
+    private final int height;
+    private final int width;
+    /**
+     * Create a builder holding a copy of 'matrix'.
+     *
+     * @param matrix starting values.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public MatrixBuilder(Matrix matrix){
+        checkNull(matrix);
+        height = matrix.getN();
+        width = matrix.getM();
+        graph = matrix.cloneArray();
+    }
+    /**
+     * Create a 'height'X'width' builder filled with zeros.
+     *
+     * @param height n of matrix
+     * @param width m of matrix
+     * @throws IllegalArgumentException iff 'height' or 'width' < 0.
+     *
+     * O('height'*'width')
+    */
+    public MatrixBuilder(int height, int width){
+        if(height < 0 || width < 0){
+            throw new IllegalArgumentException("Dimensions must be atleast 0X0.");
+        }
+        this.height = height;
+        this.width = width;
+        graph = new double[height*width];
+    }
+    /**
+     * Return an immutable Matrix holding the values of this builder. The values are not copied,
+     * so this builder can not be used afterwards.
+     *
+     * @throws IllegalStateException iff this was already frozen.
+     * @return Matrix with the values of this builder.
+     *
+     * O(1)
+    */
+    public Matrix freeze(){
+        double[] values = values();
+        graph = null;
+        return new Matrix(height, width, values);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Get number in place 'x' 'y'.
+     * @spec.requires 0 <= x < getM(), 0 <= y < getN().
+     * @throws IllegalStateException iff this was frozen.
+     *
+     * O(1)
+    */
+    public double get(int x, int y){
+        return values()[y*width + x];
+    }
+    /**
+     * Set number in place 'x' 'y' to 'value'.
+     * @spec.requires no NaN inputs, 0 <= x < getM(), 0 <= y < getN().
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(1)
+    */
+    public MatrixBuilder set(int x, int y, double value){
+        values()[y*width + x] = value;
+        return this;
+    }
+    /**
+     * Scale row 'y' by 'scale'.
+     * @param y row to scale.
+     * @param scale value to scale row by.
+     * @spec.requires no NaN inputs.
+     * @throws IllegalArgumentException iff y < 0 || y >= getN().
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getM())
+    */
+    public MatrixBuilder scale(int y, double scale){
+        double[] graph = values();
+        isARow(y);
+        int row = y*width;
+        for(int i = 0; i != width; i++){
+            graph[row + i] *= scale;
+        }
+        return this;
+    }
+    /**
+     * Scale every value by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @spec.requires no NaN inputs.
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getN()*getM())
+    */
+    public MatrixBuilder scale(double scale){
+        double[] graph = values();
+        ArrayKernels.INSTANCE.scale(graph, scale, graph, graph.length);
+        return this;
+    }
+    /**
+     * Add matrix 'mat' to this.
+     *
+     * @param mat Matrix to be added.
+     * @throws IllegalArgumentException if mat == null
+     * @throws IllegalArgumentException if mat.getN() != this.getN() || mat.getM() != this.getM();
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getN()*getM())
+    */
+    public MatrixBuilder add(Matrix mat){
+        double[] graph = values();
+        checkNull(mat);
+        if(mat.getN() != height || mat.getM() != width){
+            throw new IllegalArgumentException("Cannot preform opperation on matricies of differnt dimensions.\n mat.getN() = " + mat.getN() +
+            " while this.getN() = "+height+" mat.getM() = "+ mat.getM() + " while this.getM() = "+width+".");
+        }
+        ArrayKernels.INSTANCE.add(graph, mat.sharedArray(), graph, graph.length);
+        return this;
+    }
+    /**
+     * Add 'value' to every value of this.
+     *
+     * @param value value to add.
+     * @spec.requires no NaN inputs.
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getN()*getM())
+    */
+    public MatrixBuilder add(double value){
+        double[] graph = values();
+        ArrayKernels.INSTANCE.add(graph, value, graph, graph.length);
+        return this;
+    }
+    /**
+     * Replace the row in place 'place' with 'row'.
+     *
+     * @param row new row in place 'place'.
+     * @param place where new row is to be placed.
+     * @requires no null or NaN inputs.
+     * @throws IllegalArgumentException Iff 'place' < 0 || 'place' >= this.getN() || row.length > this.getM().
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getM())
+    */
+    public MatrixBuilder replaceRow(double[] row, int place){
+        double[] graph = values();
+        isARow(place);
+        if(row.length > width){
+            throw new IllegalArgumentException("Row has "+row.length+" values but matrix only has "+width+" columns.");
+        }
+        System.arraycopy(row, 0, graph, place*width, row.length);
+        return this;
+    }
+    /**
+     * Swap the equations in place 'row_1' and 'row_2'.
+     *
+     * @param row_1 first row to to swap
+     * @param row_2 second row to swap
+     * @throws IllegalArgumentException Iff 'row' < 0 || 'row' >= this.getN().
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getM())
+    */
+    public MatrixBuilder swap(int row_1, int row_2){
+        double[] graph = values();
+        isARow(row_1);
+        isARow(row_2);
+        int first = row_1*width;
+        int second = row_2*width;
+        for(int i = 0; i != width; i++){
+            double o = graph[first + i];
+            graph[first + i] = graph[second + i];
+            graph[second + i] = o;
+        }
+        return this;
+    }
+    /**
+     * Multiply every negative value by -1.
+     *
+     * @throws IllegalStateException iff this was frozen.
+     * @modifies this
+     * @return this
+     *
+     * O(getN()*getM())
+    */
+    public MatrixBuilder abs(){
+        double[] graph = values();
+        ArrayKernels.INSTANCE.abs(graph, graph, graph.length);
+        return this;
+    }
+    /**
+     * Return the row-major values of this for in place modification.
+     *
+     * @throws IllegalStateException iff this was frozen.
+     * @return the values of this.
+     *
+     * O(1)
+    */
+    double[] values(){
+        if(graph == null){
+            throw new IllegalStateException("MatrixBuilder was already frozen.");
+        }
+        return graph;
+    }
+    /**
+     * Check if input is a valid row.
+     *
+     * @param row place of potential row.
+     * @throws IllegalArgumentException Iff 'row' < 0 || 'row' >= this.getN().
+     *
+     * O(1)
+    */
+    private void isARow(int row){
+        if(row < 0 || row >= height){
+            throw new IllegalArgumentException("Input row is "+row+" which is out of range. Should be between 0 and "+(height-1));
+        }
+    }
+    /**
+     * Throw IllegalArgumentException if input is null
+     * @param ob object to check if null
+     * @throws IllegalArgumentException iff input is null
+     *
+     * O(1)
+    */
+    private static void checkNull(Object ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+    }
+}
@@ -0,0 +1,229 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * A bounded cache of the results of deter(), inverse() and power(long) keyed by matrix contents.
+ * Lookups use Matrix.fingerprint() and confirm hits by comparing the exact values, so a cached result
+ * is only returned for a matrix with identical values.
+ *
+ * Entries are weighed by the bytes of their key matrix and result. When the total passes the byte
+ * limit, the least recently used entries are evicted. Results larger than the limit are not cached.
+ * The cache is thread safe. Results are computed outside the lock, so two threads that miss on the
+ * same key at once may both compute it.
+*/
+public final class MatrixCache {
+    // Approximate bytes of the map entry, key and value objects around each cached result.
+    private static final long ENTRY_BYTES = 128;
+    private static final int DETER = 0;
+    private static final int INVERSE = 1;
+    private static final int POWER = 2;
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Value> entries;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Create an empty cache holding at most 'maxBytes' bytes of matrices and results.
+     *
+     * @param maxBytes byte limit of the cache.
+     * @throws IllegalArgumentException iff 'maxBytes' < 0
+    */
+    public MatrixCache(long maxBytes){
+        if(maxBytes < 0){
+            throw new IllegalArgumentException("Byte limit must be atleast 0, is "+maxBytes+".");
+        }
+        this.maxBytes = maxBytes;
+        entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+    /**
+     * Return matrix.deter(), computing it only if it is not cached.
+     *
+     * @param matrix matrix to find the determinant of.
+     * @throws IllegalArgumentException iff 'matrix' == null or 'matrix' is not square.
+     * @return the determinant of 'matrix'.
+     *
+     * O(matrix.getN()*matrix.getM()) on a hit, the cost of deter() on a miss
+    */
+    public double deter(Matrix matrix){
+        checkNull(matrix);
+        Key key = new Key(DETER, 0, matrix);
+        Value value = lookup(key);
+        if(value != null){
+            return (Double)value.result;
+        }
+        double deter = matrix.deter();
+        store(key, deter, 0);
+        return deter;
+    }
+    /**
+     * Return matrix.inverse(), computing it only if it is not cached. Singular matrices are cached too.
+     *
+     * @param matrix matrix to invert.
+     * @throws IllegalArgumentException iff 'matrix' == null or 'matrix' is not square.
+     * @return the inverse of 'matrix', or null if it has none.
+     *
+     * O(matrix.getN()*matrix.getM()) on a hit, the cost of inverse() on a miss
+    */
+    public Matrix inverse(Matrix matrix){
+        checkNull(matrix);
+        Key key = new Key(INVERSE, 0, matrix);
+        Value value = lookup(key);
+        if(value != null){
+            return (Matrix)value.result;
+        }
+        Matrix inverse = matrix.inverse();
+        store(key, inverse, inverse == null ? 0 : matrixBytes(inverse));
+        return inverse;
+    }
+    /**
+     * Return matrix.power('power'), computing it only if it is not cached.
+     *
+     * @param matrix matrix to put to a power.
+     * @param power the power the matrix is put to.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return the matrix to the 'power' power of 'matrix', or null if this does not exist.
+     *
+     * O(matrix.getN()*matrix.getM()) on a hit, the cost of power() on a miss
+    */
+    public Matrix power(Matrix matrix, long power){
+        checkNull(matrix);
+        Key key = new Key(POWER, power, matrix);
+        Value value = lookup(key);
+        if(value != null){
+            return (Matrix)value.result;
+        }
+        Matrix result = matrix.power(power);
+        // power(0) and power(1) do not need caching.
+        if(result != matrix && power != 0){
+            store(key, result, result == null ? 0 : matrixBytes(result));
+        }
+        return result;
+    }
+    /**
+     * Return the number of lookups that found a cached result.
+     *
+     * O(1)
+    */
+    public synchronized long getHits(){
+        return hits;
+    }
+    /**
+     * Return the number of lookups that computed their result.
+     *
+     * O(1)
+    */
+    public synchronized long getMisses(){
+        return misses;
+    }
+    /**
+     * Return the number of entries evicted to stay within the byte limit.
+     *
+     * O(1)
+    */
+    public synchronized long getEvictions(){
+        return evictions;
+    }
+    /**
+     * Return the number of cached results.
+     *
+     * O(1)
+    */
+    public synchronized int size(){
+        return entries.size();
+    }
+    /**
+     * Return the bytes of the cached matrices and results.
+     *
+     * O(1)
+    */
+    public synchronized long getBytes(){
+        return bytes;
+    }
+    /**
+     * Remove every cached result. The counters are kept.
+     *
+     * @modifies this
+     *
+     * O(size())
+    */
+    public synchronized void clear(){
+        entries.clear();
+        bytes = 0;
+    }
+    private synchronized Value lookup(Key key){
+        Value value = entries.get(key);
+        if(value == null){
+            misses++;
+        }else{
+            hits++;
+        }
+        return value;
+    }
+    private synchronized void store(Key key, Object result, long resultBytes){
+        Value value = new Value(result, ENTRY_BYTES + matrixBytes(key.matrix) + resultBytes);
+        if(value.bytes > maxBytes){
+            return;
+        }
+        Value old = entries.put(key, value);
+        bytes += value.bytes - (old == null ? 0 : old.bytes);
+        Iterator<Value> eldest = entries.values().iterator();
+        while(bytes > maxBytes){
+            Value evicted = eldest.next();
+            eldest.remove();
+            bytes -= evicted.bytes;
+            evictions++;
+        }
+    }
+    private static long matrixBytes(Matrix matrix){
+        return (long)matrix.getSize()*Double.BYTES;
+    }
+    private static void checkNull(Object ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+    }
+    /**
+     * An operation and its arguments. Keys are equal iff they name the same operation and argument on
+     * matrices with the same dimensions and exact values.
+    */
+    private static final class Key {
+        private final int operation;
+        private final long argument;
+        private final Matrix matrix;
+        private final long fingerprint;
+
+        private Key(int operation, long argument, Matrix matrix){
+            this.operation = operation;
+            this.argument = argument;
+            this.matrix = matrix;
+            this.fingerprint = matrix.fingerprint();
+        }
+        @Override
+        public boolean equals(Object obj){
+            if(!(obj instanceof Key)){
+                return false;
+            }
+            Key key = (Key)obj;
+            return operation == key.operation && argument == key.argument && fingerprint == key.fingerprint
+                    && matrix.getN() == key.matrix.getN() && matrix.getM() == key.matrix.getM()
+                    && (matrix == key.matrix || Arrays.equals(matrix.sharedArray(), key.matrix.sharedArray()));
+        }
+        @Override
+        public int hashCode(){
+            return (int)(fingerprint ^ (fingerprint >>> 32)) + 31*operation + Long.hashCode(argument);
+        }
+    }
+    private static final class Value {
+        private final Object result;
+        private final long bytes;
+
+        private Value(Object result, long bytes){
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+}
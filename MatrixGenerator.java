@@ -0,0 +1,216 @@
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Generates random matrices from a seed. Each generated matrix takes one SplittableRandom per block of
+ * BLOCK_ROWS rows, split off the generator in order. The blocks then fill in parallel. The rows of a
+ * block always come from the same stream, so a seed gives the same matrices for any pool and thread
+ * count.
+ *
+ * Successive calls return different matrices. A generator made again from the same seed repeats the
+ * same sequence of calls and results. Calls are thread safe, but the order of calls from different
+ * threads decides which matrix each thread gets.
+*/
+public final class MatrixGenerator {
+    // Rows filled by one random stream. Fixed so output does not depend on the parallelism.
+    static final int BLOCK_ROWS = 64;
+    // Below this many values the fork-join overhead outweighs the parallel speedup.
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    private final SplittableRandom random;
+    private final ForkJoinPool pool;
+
+    /**
+     * Create a generator that fills in parallel on the common ForkJoinPool.
+     *
+     * @param seed seed of every matrix generated.
+    */
+    public MatrixGenerator(long seed){
+        this(seed, ForkJoinPool.commonPool());
+    }
+    /**
+     * Create a generator that fills in parallel on 'pool'.
+     *
+     * @param seed seed of every matrix generated.
+     * @param pool pool the row blocks are filled in.
+     * @throws IllegalArgumentException iff 'pool' == null
+    */
+    public MatrixGenerator(long seed, ForkJoinPool pool){
+        if(pool == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        this.random = new SplittableRandom(seed);
+        this.pool = pool;
+    }
+    /**
+     * Generate a 'height'X'width' matrix of doubles uniform between 'origin' inclusive and 'bound' exclusive.
+     *
+     * @param height n of matrix
+     * @param width m of matrix
+     * @throws IllegalArgumentException iff 'height' or 'width' < 0 or !(origin < bound).
+     * @return the generated matrix.
+     *
+     * O(height*width)
+    */
+    public Matrix uniform(int height, int width, double origin, double bound){
+        checkDimensions(height, width);
+        checkRange(origin, bound);
+        double[] graph = new double[height*width];
+        fill(height, width, (random, start, end) -> {
+            for(int i = start; i != end; i++){
+                graph[i] = random.nextDouble(origin, bound);
+            }
+        });
+        return new Matrix(height, width, graph);
+    }
+    /**
+     * Generate a 'height'X'width' matrix of ints uniform between 'origin' inclusive and 'bound' exclusive.
+     *
+     * @param height n of matrix
+     * @param width m of matrix
+     * @throws IllegalArgumentException iff 'height' or 'width' < 0 or origin >= bound.
+     * @return the generated matrix.
+     *
+     * O(height*width)
+    */
+    public IntMatrix uniformInts(int height, int width, int origin, int bound){
+        checkDimensions(height, width);
+        if(origin >= bound){
+            throw new IllegalArgumentException("Origin must be less than bound, is "+origin+" and "+bound+".");
+        }
+        int[] graph = new int[height*width];
+        fill(height, width, (random, start, end) -> {
+            for(int i = start; i != end; i++){
+                graph[i] = random.nextInt(origin, bound);
+            }
+        });
+        return new IntMatrix(height, width, graph);
+    }
+    /**
+     * Generate a 'height'X'width' matrix whose values are nonzero with probability 'density' and then
+     * uniform between 'origin' inclusive and 'bound' exclusive.
+     *
+     * @param height n of matrix
+     * @param width m of matrix
+     * @param density chance of each value being nonzero.
+     * @throws IllegalArgumentException iff 'height' or 'width' < 0, !(origin < bound) or 'density' is not between 0 and 1.
+     * @return the generated matrix.
+     *
+     * O(height*width)
+    */
+    public Matrix sparse(int height, int width, double density, double origin, double bound){
+        checkDimensions(height, width);
+        checkRange(origin, bound);
+        if(!(density >= 0 && density <= 1)){
+            throw new IllegalArgumentException("Density must be between 0 and 1, is "+density+".");
+        }
+        double[] graph = new double[height*width];
+        fill(height, width, (random, start, end) -> {
+            for(int i = start; i != end; i++){
+                if(random.nextDouble() < density){
+                    graph[i] = random.nextDouble(origin, bound);
+                }
+            }
+        });
+        return new Matrix(height, width, graph);
+    }
+    /**
+     * Generate a 'height'X'width' matrix of rank at most 'rank', the product of a 'height'X'rank' and a
+     * 'rank'X'width' matrix of values uniform between -1 and 1.
+     *
+     * @param height n of matrix
+     * @param width m of matrix
+     * @param rank the largest rank of the result.
+     * @throws IllegalArgumentException iff 'height', 'width' or 'rank' < 0.
+     * @return the generated matrix.
+     *
+     * O(height*width*rank)
+    */
+    public Matrix lowRank(int height, int width, int rank){
+        checkDimensions(height, width);
+        if(rank < 0){
+            throw new IllegalArgumentException("Rank must be atleast 0, is "+rank+".");
+        }
+        if(rank == 0){
+            return new Matrix(height, width, new double[height*width]);
+        }
+        Matrix left = uniform(height, rank, -1, 1);
+        Matrix right = uniform(rank, width, -1, 1);
+        return left.matrixMultiply(right, pool);
+    }
+    /**
+     * Split one random stream per row block off this generator and run 'filler' on each block.
+     *
+     * @modifies this
+    */
+    private void fill(int height, int width, BlockFiller filler){
+        int blocks = (height + BLOCK_ROWS - 1)/BLOCK_ROWS;
+        SplittableRandom[] randoms = new SplittableRandom[blocks];
+        synchronized(random){
+            for(int i = 0; i != blocks; i++){
+                randoms[i] = random.split();
+            }
+        }
+        if(blocks == 1 || (long)height*width < PARALLEL_THRESHOLD){
+            for(int i = 0; i != blocks; i++){
+                filler.fill(randoms[i], i*BLOCK_ROWS*width, Math.min(height, (i + 1)*BLOCK_ROWS)*width);
+            }
+            return;
+        }
+        pool.invoke(new Fill(filler, randoms, height, width, 0, blocks));
+    }
+    private static void checkDimensions(int height, int width){
+        if(height < 0 || width < 0){
+            throw new IllegalArgumentException("Dimensions must be atleast 0X0.");
+        }
+        if((long)height*width > Integer.MAX_VALUE){
+            throw new IllegalArgumentException("Matrix of "+height+"X"+width+" values is too large.");
+        }
+    }
+    private static void checkRange(double origin, double bound){
+        if(!(origin < bound) || Double.isInfinite(bound - origin)){
+            throw new IllegalArgumentException("Origin must be less than bound, is "+origin+" and "+bound+".");
+        }
+    }
+    /**
+     * Fills the values 'start' inclusive to 'end' exclusive of a row-major array from 'random'.
+    */
+    private interface BlockFiller {
+        void fill(SplittableRandom random, int start, int end);
+    }
+    /**
+     * A fork-join task that fills row blocks 'blockStart' to 'blockEnd' by splitting them in half.
+     * Blocks write disjoint values, so no synchronization is needed between them.
+    */
+    private static final class Fill extends RecursiveAction {
+        // ForkJoinTask is Serializable, but a Fill is never serialized; its filler and streams are transient.
+        private static final long serialVersionUID = 1L;
+
+        private final transient BlockFiller filler;
+        private final transient SplittableRandom[] randoms;
+        private final int height;
+        private final int width;
+        private final int blockStart;
+        private final int blockEnd;
+
+        private Fill(BlockFiller filler, SplittableRandom[] randoms, int height, int width, int blockStart, int blockEnd){
+            this.filler = filler;
+            this.randoms = randoms;
+            this.height = height;
+            this.width = width;
+            this.blockStart = blockStart;
+            this.blockEnd = blockEnd;
+        }
+        @Override
+        protected void compute(){
+            if(blockEnd - blockStart == 1){
+                filler.fill(randoms[blockStart], blockStart*BLOCK_ROWS*width, Math.min(height, blockEnd*BLOCK_ROWS)*width);
+                return;
+            }
+            int middle = (blockStart + blockEnd) >>> 1;
+            invokeAll(new Fill(filler, randoms, height, width, blockStart, middle),
+                    new Fill(filler, randoms, height, width, middle, blockEnd));
+        }
+    }
+}
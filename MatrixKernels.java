@@ -0,0 +1,308 @@
+import java.util.Random;
+
+/**
+ * Dense matrix multiplication kernels over row-major double[] storage.
+ *
+ * A row-major array holds the element in row y, column x at array[offset + y*stride + x].
+ * Every kernel overwrites its output rows rather than accumulating into them.
+*/
+final class MatrixKernels {
+    // Rows and columns of the register block computed by microKernel.
+    private static final int MR = 4;
+    private static final int NR = 4;
+    // Bytes of the packed right-hand panel, sized to stay resident in a 256KB L2 cache.
+    private static final int PANEL_BYTES = 128*1024;
+    // Largest inner dimension kept in one packed panel.
+    private static final int MAX_DEPTH_BLOCK = 256;
+    // Rows of the left operand walked against one packed panel before moving on.
+    private static final int ROW_BLOCK = 64;
+    // Below this many multiply-adds the packing overhead outweighs the cache savings.
+    private static final long BLOCKING_THRESHOLD = 64L*64*64;
+
+    private MatrixKernels(){
+    }
+    public static void main(String[] args){
+        int[] sizes = {64, 128, 256, 512, 1024};
+        Random random = new Random();
+        for(int size: sizes){
+            double[] a = new double[size*size];
+            double[] b = new double[size*size];
+            for(int i = 0; i != a.length; i++){
+                a[i] = random.nextDouble()*20;
+                b[i] = random.nextDouble()*20;
+            }
+            double[] c = new double[size*size];
+            double flops = 2.0*size*size*size;
+            int repeats = (int)Math.max(1, 4e9/flops);
+            double simple = 0;
+            double blocked = 0;
+            // First round warms up the JIT, the second is reported.
+            for(int round = 0; round != 2; round++){
+                long start = System.nanoTime();
+                for(int r = 0; r != repeats; r++){
+                    multiplySimple(a, 0, size, b, 0, size, c, 0, size, size, size, size, 0, size);
+                }
+                simple = flops*repeats/(System.nanoTime() - start);
+                start = System.nanoTime();
+                for(int r = 0; r != repeats; r++){
+                    multiplyBlocked(a, 0, size, 1, b, 0, size, 1, c, 0, size, size, size, size, 0, size);
+                }
+                blocked = flops*repeats/(System.nanoTime() - start);
+            }
+            System.out.println(size+"x"+size+": simple "+String.format("%.2f", simple)+" GFLOP/s, blocked "+String.format("%.2f", blocked)+" GFLOP/s");
+        }
+    }
+    /**
+     * Compute rows 'rowStart' to 'rowEnd' of C = A*B where A is 'n'X'k' and B is 'k'X'm'.
+     * Picks between the simple loop and the cache-blocked kernel from the problem size.
+     *
+     * @param a row-major values of A
+     * @param aOffset place of A's first element in 'a'
+     * @param aStride distance between the start of consecutive rows of 'a'
+     * @param b row-major values of B
+     * @param bOffset place of B's first element in 'b'
+     * @param bStride distance between the start of consecutive rows of 'b'
+     * @param c row-major output of C
+     * @param cOffset place of C's first element in 'c'
+     * @param cStride distance between the start of consecutive rows of 'c'
+     * @param n height of A and C
+     * @param k width of A and height of B
+     * @param m width of B and C
+     * @param rowStart first row of C to compute
+     * @param rowEnd one past the last row of C to compute
+     * @spec.requires no null or NaN inputs, 0 <= rowStart <= rowEnd <= n, 'c' does not share storage with 'a' or 'b'.
+     * @modifies c
+     *
+     * O((rowEnd-rowStart)*k*m)
+    */
+    static void multiply(double[] a, int aOffset, int aStride, double[] b, int bOffset, int bStride, double[] c, int cOffset, int cStride, int n, int k, int m, int rowStart, int rowEnd){
+        if((long)(rowEnd - rowStart)*k*m < BLOCKING_THRESHOLD){
+            multiplySimple(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, n, k, m, rowStart, rowEnd);
+        }else{
+            multiplyBlocked(a, aOffset, aStride, 1, b, bOffset, bStride, 1, c, cOffset, cStride, n, k, m, rowStart, rowEnd);
+        }
+    }
+    /**
+     * Compute rows 'rowStart' to 'rowEnd' of C = A*B where A and B may have any element spacing within
+     * a row, so a transposed operand is read in place by swapping its strides. Always uses the
+     * cache-blocked kernel, whose packing step absorbs the spacing of B.
+     * Other arguments are as in multiply.
+     *
+     * @param aColumnStride distance between consecutive elements of a row of 'a'
+     * @param bColumnStride distance between consecutive elements of a row of 'b'
+     * @spec.requires no null or NaN inputs, 0 <= rowStart <= rowEnd <= n, 'c' does not share storage with 'a' or 'b'.
+     * @modifies c
+     *
+     * O((rowEnd-rowStart)*k*m)
+    */
+    static void multiplyStrided(double[] a, int aOffset, int aStride, int aColumnStride, double[] b, int bOffset, int bStride, int bColumnStride, double[] c, int cOffset, int cStride, int n, int k, int m, int rowStart, int rowEnd){
+        multiplyBlocked(a, aOffset, aStride, aColumnStride, b, bOffset, bStride, bColumnStride, c, cOffset, cStride, n, k, m, rowStart, rowEnd);
+    }
+    /**
+     * Row-by-row i-k-j multiply. Every inner step reads B and writes C with unit stride.
+     * Same contract as multiply.
+     *
+     * O((rowEnd-rowStart)*k*m)
+    */
+    static void multiplySimple(double[] a, int aOffset, int aStride, double[] b, int bOffset, int bStride, double[] c, int cOffset, int cStride, int n, int k, int m, int rowStart, int rowEnd){
+        for(int i = rowStart; i != rowEnd; i++){
+            int row = cOffset + i*cStride;
+            int aRow = aOffset + i*aStride;
+            for(int j = 0; j != m; j++){
+                c[row + j] = 0;
+            }
+            for(int p = 0; p != k; p++){
+                ArrayKernels.INSTANCE.axpy(a[aRow + p], b, bOffset + p*bStride, c, row, m);
+            }
+        }
+    }
+    /**
+     * Compute y = A*x where A is 'n'X'k'. Four rows of A are walked together so each value of 'x'
+     * is loaded once per four rows and the four sums form independent dependency chains.
+     *
+     * @param a row-major values of A
+     * @param aOffset place of A's first element in 'a'
+     * @param aStride distance between the start of consecutive rows of 'a'
+     * @param x vector of length 'k'
+     * @param y output vector of length 'n'
+     * @spec.requires no null or NaN inputs, 'y' does not share storage with 'a' or 'x'.
+     * @modifies y
+     *
+     * O(n*k)
+    */
+    static void multiplyVector(double[] a, int aOffset, int aStride, double[] x, double[] y, int n, int k){
+        int i = 0;
+        for(; i + 4 <= n; i += 4){
+            int row0 = aOffset + i*aStride;
+            int row1 = row0 + aStride;
+            int row2 = row1 + aStride;
+            int row3 = row2 + aStride;
+            double sum0 = 0;
+            double sum1 = 0;
+            double sum2 = 0;
+            double sum3 = 0;
+            for(int p = 0; p != k; p++){
+                double value = x[p];
+                sum0 += a[row0 + p]*value;
+                sum1 += a[row1 + p]*value;
+                sum2 += a[row2 + p]*value;
+                sum3 += a[row3 + p]*value;
+            }
+            y[i] = sum0;
+            y[i + 1] = sum1;
+            y[i + 2] = sum2;
+            y[i + 3] = sum3;
+        }
+        for(; i != n; i++){
+            int row = aOffset + i*aStride;
+            double sum = 0;
+            for(int p = 0; p != k; p++){
+                sum += a[row + p]*x[p];
+            }
+            y[i] = sum;
+        }
+    }
+    /**
+     * Cache-blocked multiply. B is packed one depthBlock X columnBlock panel at a time into
+     * NR wide strips, and every MR X NR block of C is accumulated in locals across the panel.
+     * Same contract as multiplyStrided.
+     *
+     * O((rowEnd-rowStart)*k*m)
+    */
+    static void multiplyBlocked(double[] a, int aOffset, int aStride, int aColumnStride, double[] b, int bOffset, int bStride, int bColumnStride, double[] c, int cOffset, int cStride, int n, int k, int m, int rowStart, int rowEnd){
+        int depthBlock = depthBlock(k);
+        int columnBlock = columnBlock(depthBlock, m);
+        double[] panel = new double[depthBlock*columnBlock];
+        for(int i = rowStart; i != rowEnd; i++){
+            int row = cOffset + i*cStride;
+            for(int j = 0; j != m; j++){
+                c[row + j] = 0;
+            }
+        }
+        for(int jj = 0; jj < m; jj += columnBlock){
+            int columns = Math.min(columnBlock, m - jj);
+            for(int pp = 0; pp < k; pp += depthBlock){
+                int depth = Math.min(depthBlock, k - pp);
+                pack(b, bOffset + pp*bStride + jj*bColumnStride, bStride, bColumnStride, depth, columns, panel);
+                for(int ii = rowStart; ii < rowEnd; ii += ROW_BLOCK){
+                    int rowLimit = Math.min(ii + ROW_BLOCK, rowEnd);
+                    for(int j = 0; j < columns; j += NR){
+                        int width = Math.min(NR, columns - j);
+                        int strip = j*depth;
+                        int i = ii;
+                        if(width == NR){
+                            for(; i + MR <= rowLimit; i += MR){
+                                microKernel(a, aStride, aColumnStride, aOffset + i*aStride + pp*aColumnStride, panel, strip, c, cStride, cOffset + i*cStride + jj + j, depth);
+                            }
+                        }
+                        for(; i < rowLimit; i++){
+                            edgeKernel(a, aColumnStride, aOffset + i*aStride + pp*aColumnStride, panel, strip, c, cOffset + i*cStride + jj + j, depth, width);
+                        }
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * Pick how much of the inner dimension goes into one packed panel.
+     *
+     * @param k inner dimension of the product
+     * @return depth of a packed panel
+    */
+    static int depthBlock(int k){
+        return Math.max(1, Math.min(k, MAX_DEPTH_BLOCK));
+    }
+    /**
+     * Pick how many columns of B go into one packed panel so the panel fits in PANEL_BYTES.
+     *
+     * @param depthBlock depth of a packed panel
+     * @param m width of B
+     * @return width of a packed panel, a multiple of NR unless it covers all of B
+    */
+    static int columnBlock(int depthBlock, int m){
+        int columns = PANEL_BYTES/(Double.BYTES*depthBlock);
+        columns = Math.max(NR, columns - columns%NR);
+        return Math.min(columns, m);
+    }
+    /**
+     * Copy the 'depth'X'columns' block of B whose first element is at b['corner'] into 'panel'
+     * as consecutive NR wide strips. Within a strip each row of the block is stored contiguously.
+     *
+     * @modifies panel
+     *
+     * O(depth*columns)
+    */
+    private static void pack(double[] b, int corner, int bStride, int bColumnStride, int depth, int columns, double[] panel){
+        int place = 0;
+        for(int j = 0; j < columns; j += NR){
+            int width = Math.min(NR, columns - j);
+            for(int p = 0; p != depth; p++){
+                int source = corner + p*bStride + j*bColumnStride;
+                for(int t = 0; t != width; t++){
+                    panel[place++] = b[source + t*bColumnStride];
+                }
+            }
+        }
+    }
+    /**
+     * Add the product of an MR row slice of A and one full NR strip of the packed panel into C.
+     *
+     * @modifies c
+     *
+     * O(depth)
+    */
+    private static void microKernel(double[] a, int aStride, int aColumnStride, int aPlace, double[] panel, int strip, double[] c, int cStride, int cPlace, int depth){
+        double c00 = 0, c01 = 0, c02 = 0, c03 = 0;
+        double c10 = 0, c11 = 0, c12 = 0, c13 = 0;
+        double c20 = 0, c21 = 0, c22 = 0, c23 = 0;
+        double c30 = 0, c31 = 0, c32 = 0, c33 = 0;
+        int a0 = aPlace;
+        int a1 = a0 + aStride;
+        int a2 = a1 + aStride;
+        int a3 = a2 + aStride;
+        int place = strip;
+        int column = 0;
+        for(int p = 0; p != depth; p++){
+            double b0 = panel[place];
+            double b1 = panel[place + 1];
+            double b2 = panel[place + 2];
+            double b3 = panel[place + 3];
+            place += NR;
+            double value = a[a0 + column];
+            c00 += value*b0; c01 += value*b1; c02 += value*b2; c03 += value*b3;
+            value = a[a1 + column];
+            c10 += value*b0; c11 += value*b1; c12 += value*b2; c13 += value*b3;
+            value = a[a2 + column];
+            c20 += value*b0; c21 += value*b1; c22 += value*b2; c23 += value*b3;
+            value = a[a3 + column];
+            c30 += value*b0; c31 += value*b1; c32 += value*b2; c33 += value*b3;
+            column += aColumnStride;
+        }
+        int row = cPlace;
+        c[row] += c00; c[row + 1] += c01; c[row + 2] += c02; c[row + 3] += c03;
+        row += cStride;
+        c[row] += c10; c[row + 1] += c11; c[row + 2] += c12; c[row + 3] += c13;
+        row += cStride;
+        c[row] += c20; c[row + 1] += c21; c[row + 2] += c22; c[row + 3] += c23;
+        row += cStride;
+        c[row] += c30; c[row + 1] += c31; c[row + 2] += c32; c[row + 3] += c33;
+    }
+    /**
+     * Add the product of one row of A and a strip of the packed panel that is 'width' <= NR wide into C.
+     *
+     * @modifies c
+     *
+     * O(depth*width)
+    */
+    private static void edgeKernel(double[] a, int aColumnStride, int aPlace, double[] panel, int strip, double[] c, int cPlace, int depth, int width){
+        for(int t = 0; t != width; t++){
+            double total = 0;
+            int place = strip + t;
+            for(int p = 0; p != depth; p++){
+                total += a[aPlace + p*aColumnStride]*panel[place];
+                place += width;
+            }
+            c[cPlace + t] += total;
+        }
+    }
+}
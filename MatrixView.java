@@ -0,0 +1,251 @@
+/**
+ * An immutable, zero-copy view of part of a Matrix. A view is a transpose, a rectangular block, a minor
+ * with one row and one column deleted, or any combination of these, and it shares the values of the
+ * Matrix it was made from. This is safe because Matrix is immutable.
+ *
+ * Element (x, y) of the view is values[offset + row(y)*rowStride + column(x)*columnStride], where row and
+ * column are the identity unless rows or columns were deleted. Deleting rows or columns keeps an index
+ * list of the remaining ones, so a view costs O(getN() + getM()) at most and never copies values.
+*/
+public class MatrixView {
+    private final double[] values;
+    private final int offset;
+    private final int rowStride;
+    private final int columnStride;
+    private final int height;
+    private final int width;
+    // Remaining rows and columns after deletions, null when no row or column was deleted.
+    private final int[] rows;
+    private final int[] columns;
+
+    private MatrixView(double[] values, int offset, int rowStride, int columnStride, int height, int width, int[] rows, int[] columns){
+        this.values = values;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
+        this.height = height;
+        this.width = width;
+        this.rows = rows;
+        this.columns = columns;
+    }
+    /**
+     * Return a view of all of 'matrix'.
+     *
+     * @param matrix matrix to view.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return a view of all of 'matrix'.
+     *
+     * O(1)
+    */
+    static MatrixView of(Matrix matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        return new MatrixView(matrix.sharedArray(), 0, matrix.getM(), 1, matrix.getN(), matrix.getM(), null, null);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Get number in place 'x' 'y'.
+     * @spec.requires 0 <= x < getM(), 0 <= y < getN().
+     *
+     * O(1)
+    */
+    public double get(int x, int y){
+        int row = rows == null ? y : rows[y];
+        int column = columns == null ? x : columns[x];
+        return values[offset + row*rowStride + column*columnStride];
+    }
+    /**
+     * Return a view of the transpose of this.
+     *
+     * @return the transpose of this.
+     *
+     * O(1)
+    */
+    public MatrixView transpose(){
+        return new MatrixView(values, offset, columnStride, rowStride, width, height, columns, rows);
+    }
+    /**
+     * Return a view of the 'width'X'height' block of this whose top left element is at ('x', 'y').
+     *
+     * @param x column of the top left element of the block.
+     * @param y row of the top left element of the block.
+     * @param width width of the block.
+     * @param height height of the block.
+     * @throws IllegalArgumentException iff the block does not lie within this or is empty.
+     * @return view of the block.
+     *
+     * O(1) without deleted rows or columns, O(width + height) otherwise
+    */
+    public MatrixView subMatrix(int x, int y, int width, int height){
+        if(x < 0 || y < 0 || width < 1 || height < 1 || x + width > this.width || y + height > this.height){
+            throw new IllegalArgumentException("Block of "+width+" by "+height+" at ("+x+", "+y+") does not fit in a "+this.height+" by "+this.width+" matrix.");
+        }
+        int offset = this.offset;
+        int[] rows = null;
+        int[] columns = null;
+        if(this.rows == null){
+            offset += y*rowStride;
+        }else{
+            rows = new int[height];
+            System.arraycopy(this.rows, y, rows, 0, height);
+        }
+        if(this.columns == null){
+            offset += x*columnStride;
+        }else{
+            columns = new int[width];
+            System.arraycopy(this.columns, x, columns, 0, width);
+        }
+        return new MatrixView(values, offset, rowStride, columnStride, height, width, rows, columns);
+    }
+    /**
+     * Return a view of this with row 'n' and column 'm' deleted.
+     *
+     * @param n row to delete.
+     * @param m column to delete.
+     * @throws IllegalArgumentException iff 'n' or 'm' is out of range or this has only one row or column.
+     * @return view of the minor.
+     *
+     * O(getN() + getM())
+    */
+    public MatrixView minor(int n, int m){
+        if(n < 0 || n >= height || m < 0 || m >= width || height == 1 || width == 1){
+            throw new IllegalArgumentException("Cannot delete row "+n+" and column "+m+" of a "+height+" by "+width+" matrix.");
+        }
+        return new MatrixView(values, offset, rowStride, columnStride, height - 1, width - 1, delete(rows, height, n), delete(columns, width, m));
+    }
+    /**
+     * Return the index list 'indices' with place 'place' removed, where null stands for 0 to 'length'-1.
+     *
+     * O(length)
+    */
+    private static int[] delete(int[] indices, int length, int place){
+        int[] goal = new int[length - 1];
+        for(int i = 0, j = 0; i != length; i++){
+            if(i != place){
+                goal[j++] = indices == null ? i : indices[i];
+            }
+        }
+        return goal;
+    }
+    /**
+     * Return the matrix multiple of this and 'matrix'. Views without deleted rows or columns are
+     * read in place with their strides, so multiplying by a transposed view never copies it.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return matrix multiple of this and 'matrix', or null if not AXB times BXC matricies.
+     *
+     * O(getN()*getM()*matrix.getM())
+    */
+    public Matrix matrixMultiply(MatrixView matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(width != matrix.height){
+            return null;
+        }
+        MatrixView left = strided();
+        MatrixView right = matrix.strided();
+        double[] goal = new double[height*matrix.width];
+        MatrixKernels.multiplyStrided(left.values, left.offset, left.rowStride, left.columnStride,
+                right.values, right.offset, right.rowStride, right.columnStride,
+                goal, 0, matrix.width, height, width, matrix.width, 0, height);
+        return new Matrix(height, matrix.width, goal);
+    }
+    /**
+     * Return the matrix multiple of this and 'matrix'. See matrixMultiply(MatrixView).
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return matrix multiple of this and 'matrix', or null if not AXB times BXC matricies.
+     *
+     * O(getN()*getM()*matrix.getM())
+    */
+    public Matrix matrixMultiply(Matrix matrix){
+        return matrixMultiply(of(matrix));
+    }
+    /**
+     * Return a copy of this view as a Matrix.
+     *
+     * @return Matrix with the values of this view.
+     *
+     * O(getN()*getM())
+    */
+    public Matrix toMatrix(){
+        double[] goal = new double[height*width];
+        copyInto(goal);
+        return new Matrix(height, width, goal);
+    }
+    /**
+     * Return this if it has no deleted rows or columns, otherwise a compact copy of it.
+     *
+     * O(1) without deleted rows or columns, O(getN()*getM()) otherwise
+    */
+    private MatrixView strided(){
+        if(rows == null && columns == null){
+            return this;
+        }
+        double[] goal = new double[height*width];
+        copyInto(goal);
+        return new MatrixView(goal, 0, width, 1, height, width, null, null);
+    }
+    /**
+     * Copy the values of this view into 'goal' in row-major order.
+     *
+     * @modifies goal
+     *
+     * O(getN()*getM())
+    */
+    private void copyInto(double[] goal){
+        int place = 0;
+        for(int y = 0; y != height; y++){
+            int row = offset + (rows == null ? y : rows[y])*rowStride;
+            if(columns == null && columnStride == 1){
+                System.arraycopy(values, row, goal, place, width);
+                place += width;
+                continue;
+            }
+            for(int x = 0; x != width; x++){
+                goal[place++] = values[row + (columns == null ? x : columns[x])*columnStride];
+            }
+        }
+    }
+    /**
+     * Return the determinant of this by cofactor expansion along the first row, using views for the minors.
+     *
+     * @requires getN() == getM()
+     * @return the determinant of this.
+     *
+     * O(getN()!)
+    */
+    double cofactorDeter(){
+        if(width == 1){
+            return get(0, 0);
+        }
+        double deter = 0;
+        int mul = 1;
+        for(int i = 0; i != width; i++){
+            deter += mul*get(i, 0)*minor(0, i).cofactorDeter();
+            mul *= -1;
+        }
+        return deter;
+    }
+}
@@ -0,0 +1,77 @@
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * A fork-join task that computes a band of rows of C = A*B by splitting it in half until each
+ * band is at most 'grain' rows, then running the serial MatrixKernels.multiply on each band.
+ * Bands write disjoint rows of C, so no synchronization is needed between them.
+*/
+final class ParallelMultiply extends RecursiveAction {
+    // ForkJoinTask is Serializable, but a band is never serialized.
+    private static final long serialVersionUID = 1L;
+    // Below this many multiply-adds the fork-join overhead outweighs the parallel speedup.
+    static final long PARALLEL_THRESHOLD = 128L*128*128;
+    // Bands are kept a multiple of the kernel's register block height.
+    private static final int ROW_ALIGNMENT = 4;
+
+    private final double[] a;
+    private final int aStride;
+    private final double[] b;
+    private final int bStride;
+    private final double[] c;
+    private final int cStride;
+    private final int n;
+    private final int k;
+    private final int m;
+    private final int rowStart;
+    private final int rowEnd;
+    private final int grain;
+
+    private ParallelMultiply(double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int n, int k, int m, int rowStart, int rowEnd, int grain){
+        this.a = a;
+        this.aStride = aStride;
+        this.b = b;
+        this.bStride = bStride;
+        this.c = c;
+        this.cStride = cStride;
+        this.n = n;
+        this.k = k;
+        this.m = m;
+        this.rowStart = rowStart;
+        this.rowEnd = rowEnd;
+        this.grain = grain;
+    }
+    /**
+     * Compute C = A*B on 'pool' using up to 'parallelism' row bands. Runs the serial kernel on the
+     * calling thread when the product is smaller than PARALLEL_THRESHOLD or 'parallelism' == 1.
+     * Arguments are as in MatrixKernels.multiply.
+     *
+     * @param pool pool the row bands run in
+     * @param parallelism number of row bands C is split into
+     * @spec.requires no null or NaN inputs, parallelism >= 1, 'c' does not share storage with 'a' or 'b'.
+     * @modifies c
+     *
+     * O(n*k*m)
+    */
+    static void multiply(ForkJoinPool pool, int parallelism, double[] a, int aStride, double[] b, int bStride, double[] c, int cStride, int n, int k, int m){
+        if(parallelism == 1 || n == 1 || (long)n*k*m < PARALLEL_THRESHOLD){
+            MatrixKernels.multiply(a, 0, aStride, b, 0, bStride, c, 0, cStride, n, k, m, 0, n);
+            return;
+        }
+        int grain = (n + parallelism - 1)/parallelism;
+        grain = Math.max(ROW_ALIGNMENT, grain + (ROW_ALIGNMENT - grain%ROW_ALIGNMENT)%ROW_ALIGNMENT);
+        pool.invoke(new ParallelMultiply(a, aStride, b, bStride, c, cStride, n, k, m, 0, n, grain));
+    }
+    @Override
+    protected void compute(){
+        int rows = rowEnd - rowStart;
+        if(rows <= grain){
+            MatrixKernels.multiply(a, 0, aStride, b, 0, bStride, c, 0, cStride, n, k, m, rowStart, rowEnd);
+            return;
+        }
+        // Split on a multiple of 'grain' so every band but the last is exactly 'grain' rows.
+        int middle = rowStart + (rows/grain + 1)/2*grain;
+        invokeAll(new ParallelMultiply(a, aStride, b, bStride, c, cStride, n, k, m, rowStart, middle, grain),
+                new ParallelMultiply(a, aStride, b, bStride, c, cStride, n, k, m, middle, rowEnd, grain));
+    }
+}
@@ -0,0 +1,299 @@
+/**
+ * An immutable compressed sparse matrix that stores only its nonzero values, so memory and the cost
+ * of most operations scale with the number of nonzeros instead of getN()*getM().
+ *
+ * The nonzeros are grouped into major lines, rows for CsrMatrix and columns for CscMatrix. The
+ * nonzeros of major line i are values[pointers[i]] to values[pointers[i+1]-1], and indices holds
+ * the place of each one along its line in increasing order.
+*/
+public abstract class SparseMatrix {
+    // Largest fraction of nonzeros for which a sparse format is chosen over a dense Matrix.
+    static final double SPARSE_DENSITY = 0.1;
+    // Smallest number of dense multiply-adds for which Matrix checks its left operand for sparsity.
+    static final long SPARSE_PRODUCT_THRESHOLD = 64*64*64;
+
+    private final int height;
+    private final int width;
+    final int[] pointers;
+    final int[] indices;
+    final double[] values;
+
+    SparseMatrix(int height, int width, int[] pointers, int[] indices, double[] values){
+        this.height = height;
+        this.width = width;
+        this.pointers = pointers;
+        this.indices = indices;
+        this.values = values;
+    }
+    /**
+     * Return true if 'matrix' has few enough nonzeros that a sparse format is the better choice.
+     * Stops reading as soon as the answer is known.
+     *
+     * @param matrix matrix to check.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return true iff at most SPARSE_DENSITY of the values of 'matrix' are nonzero.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static boolean isSparse(Matrix matrix){
+        checkNull(matrix);
+        double[] graph = matrix.sharedArray();
+        long limit = (long)(SPARSE_DENSITY*graph.length);
+        long nonZeros = 0;
+        for(int i = 0; i != graph.length; i++){
+            if(graph[i] != 0 && ++nonZeros > limit){
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Return 'matrix' in CSR form if it is sparse by isSparse, otherwise null.
+     *
+     * @param matrix matrix to convert.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return 'matrix' in CSR form, or null if it is dense.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static CsrMatrix choose(Matrix matrix){
+        if(!isSparse(matrix)){
+            return null;
+        }
+        return CsrMatrix.fromDense(matrix);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Return the number of stored nonzero values.
+     *
+     * @return number of nonzeros.
+     *
+     * O(1)
+    */
+    public int getNonZeros(){
+        return values.length;
+    }
+    /**
+     * Get number in place 'x' 'y'.
+     * @spec.requires 0 <= x < getM(), 0 <= y < getN().
+     *
+     * O(log(nonzeros in the major line))
+    */
+    public double get(int x, int y){
+        int major = isRowMajor() ? y : x;
+        int minor = isRowMajor() ? x : y;
+        int low = pointers[major];
+        int high = pointers[major + 1] - 1;
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            if(indices[middle] < minor){
+                low = middle + 1;
+            }else if(indices[middle] > minor){
+                high = middle - 1;
+            }else{
+                return values[middle];
+            }
+        }
+        return 0;
+    }
+    /**
+     * Return the largest value, counting the zeros that are not stored.
+     *
+     * @return the largest value.
+     *
+     * O(nonzeros)
+    */
+    public double getMax(){
+        return getMinOrMax(true);
+    }
+    /**
+     * Return the smallest value, counting the zeros that are not stored.
+     *
+     * @return the smallest value.
+     *
+     * O(nonzeros)
+    */
+    public double getMin(){
+        return getMinOrMax(false);
+    }
+    private double getMinOrMax(boolean max){
+        boolean hasZeros = (long)height*width != values.length;
+        if(values.length == 0){
+            return 0;
+        }
+        double val = hasZeros ? 0 : values[0];
+        for(int i = 0; i != values.length; i++){
+            if(val < values[i] == max){
+                val = values[i];
+            }
+        }
+        return val;
+    }
+    /**
+     * Finds the dot product of this and 'matrix', the sum of the products of matching elements.
+     *
+     * @param matrix to find dot product with this.
+     * @throws IllegalArgumentException if matrix == null
+     * @throws IllegalArgumentException if the dimensions or formats of this and 'matrix' differ.
+     *
+     * O(nonzeros of this + nonzeros of 'matrix')
+    */
+    public double dotProduct(SparseMatrix matrix){
+        checkSameShape(matrix);
+        double total = 0;
+        for(int line = 0; line != pointers.length - 1; line++){
+            int i = pointers[line];
+            int j = matrix.pointers[line];
+            int iEnd = pointers[line + 1];
+            int jEnd = matrix.pointers[line + 1];
+            while(i < iEnd && j < jEnd){
+                if(indices[i] < matrix.indices[j]){
+                    i++;
+                }else if(indices[i] > matrix.indices[j]){
+                    j++;
+                }else{
+                    total += values[i++]*matrix.values[j++];
+                }
+            }
+        }
+        return total;
+    }
+    /**
+     * Return a dense copy of this.
+     *
+     * @return this as a Matrix.
+     *
+     * O(getN()*getM())
+    */
+    public Matrix toMatrix(){
+        double[] graph = new double[height*width];
+        boolean rowMajor = isRowMajor();
+        for(int line = 0; line != pointers.length - 1; line++){
+            for(int i = pointers[line]; i != pointers[line + 1]; i++){
+                int place = rowMajor ? line*width + indices[i] : indices[i]*width + line;
+                graph[place] = values[i];
+            }
+        }
+        return new Matrix(height, width, graph);
+    }
+    /**
+     * Return true if the major lines are rows, false if they are columns.
+     *
+     * O(1)
+    */
+    abstract boolean isRowMajor();
+    /**
+     * Return the sum of this and 'matrix' in the format of this, dropping values that cancel to zero.
+     *
+     * @throws IllegalArgumentException if the dimensions or formats of this and 'matrix' differ.
+     * @return the arrays of the sum.
+     *
+     * O(nonzeros of this + nonzeros of 'matrix')
+    */
+    Parts addArrays(SparseMatrix matrix){
+        checkSameShape(matrix);
+        int lines = pointers.length - 1;
+        int[] goalPointers = new int[lines + 1];
+        int[] goalIndices = new int[values.length + matrix.values.length];
+        double[] goalValues = new double[values.length + matrix.values.length];
+        int place = 0;
+        for(int line = 0; line != lines; line++){
+            int i = pointers[line];
+            int j = matrix.pointers[line];
+            int iEnd = pointers[line + 1];
+            int jEnd = matrix.pointers[line + 1];
+            while(i < iEnd || j < jEnd){
+                int index;
+                double value;
+                if(j == jEnd || (i < iEnd && indices[i] < matrix.indices[j])){
+                    index = indices[i];
+                    value = values[i++];
+                }else if(i == iEnd || indices[i] > matrix.indices[j]){
+                    index = matrix.indices[j];
+                    value = matrix.values[j++];
+                }else{
+                    index = indices[i];
+                    value = values[i++] + matrix.values[j++];
+                }
+                if(value != 0){
+                    goalIndices[place] = index;
+                    goalValues[place++] = value;
+                }
+            }
+            goalPointers[line + 1] = place;
+        }
+        return new Parts(goalPointers, trim(goalIndices, place), trim(goalValues, place));
+    }
+    /**
+     * Return the values of this multiplied by 'scale', in the same places. Nothing is dropped, so a
+     * zero 'scale' leaves explicit zeros in the structure and callers should handle it first.
+     *
+     * O(nonzeros)
+    */
+    double[] scaledValues(double scale){
+        double[] goal = new double[values.length];
+        for(int i = 0; i != values.length; i++){
+            goal[i] = values[i]*scale;
+        }
+        return goal;
+    }
+    static int[] trim(int[] array, int length){
+        if(array.length == length){
+            return array;
+        }
+        int[] goal = new int[length];
+        System.arraycopy(array, 0, goal, 0, length);
+        return goal;
+    }
+    static double[] trim(double[] array, int length){
+        if(array.length == length){
+            return array;
+        }
+        double[] goal = new double[length];
+        System.arraycopy(array, 0, goal, 0, length);
+        return goal;
+    }
+    private void checkSameShape(SparseMatrix matrix){
+        checkNull(matrix);
+        if(matrix.height != height || matrix.width != width || matrix.isRowMajor() != isRowMajor()){
+            throw new IllegalArgumentException("Cannot preform opperation on sparse matricies of differnt dimensions or formats.");
+        }
+    }
+    static void checkNull(Object ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+    }
+    /**
+     * The pointers, indices and values of a sparse matrix built by an operation, before they are
+     * wrapped in the format of the operands.
+    */
+    static final class Parts {
+        final int[] pointers;
+        final int[] indices;
+        final double[] values;
+
+        private Parts(int[] pointers, int[] indices, double[] values){
+            this.pointers = pointers;
+            this.indices = indices;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Strassen multiplication of square row-major matrices.
+ *
+ * An n X n product is padded with zeros up to size = base*2^levels, where base <= crossover is
+ * the smallest block that reaches n after 'levels' halvings. Each level computes Strassen's seven
+ * half-size products in sequence and the blocks of size 'base' use MatrixKernels.multiply.
+ * Every level owns three half-size scratch buffers that are reused by all seven products, so
+ * the scratch memory is about size^2 doubles no matter how deep the recursion goes. When n is
+ * not already size, three more size X size buffers hold the padded operands and product.
+*/
+final class StrassenMultiply {
+    // Default largest block handed to the classical kernel.
+    static final int DEFAULT_CROSSOVER = 1024;
+
+    private final int levels;
+    private final int size;
+    // left[level], right[level] and products[level] are the scratch buffers of the products at 'level'.
+    private final double[][] left;
+    private final double[][] right;
+    private final double[][] products;
+    // Padded copies of A, B and C, or null if n == size. Only the top left n X n of paddedA and
+    // paddedB is ever written, so their margins stay zero from allocation.
+    private final double[] paddedA;
+    private final double[] paddedB;
+    private final double[] paddedC;
+
+    /**
+     * Prepare scratch space for n X n products that switch to the classical kernel at blocks of
+     * 'crossover' or fewer rows.
+     *
+     * @param n side length of the operands
+     * @param crossover largest block multiplied by the classical kernel
+     * @spec.requires n >= 1, crossover >= 1
+     *
+     * O(n^2)
+    */
+    StrassenMultiply(int n, int crossover){
+        int levels = 0;
+        int base = n;
+        while(base > crossover){
+            base = (base + 1)/2;
+            levels++;
+        }
+        this.levels = levels;
+        this.size = base << levels;
+        left = new double[levels][];
+        right = new double[levels][];
+        products = new double[levels][];
+        int half = size;
+        for(int level = 0; level != levels; level++){
+            half /= 2;
+            left[level] = new double[half*half];
+            right[level] = new double[half*half];
+            products[level] = new double[half*half];
+        }
+        if(size != n){
+            paddedA = new double[size*size];
+            paddedB = new double[size*size];
+            paddedC = new double[size*size];
+        }else{
+            paddedA = null;
+            paddedB = null;
+            paddedC = null;
+        }
+    }
+    /**
+     * Compute C = A*B for n X n row-major A and B with no padding between rows.
+     *
+     * @param a values of A
+     * @param b values of B
+     * @param c output for C
+     * @param n side length of A, B and C, the same n this was built with
+     * @spec.requires no null or NaN inputs, 'c' does not share storage with 'a' or 'b'.
+     * @modifies c, the scratch buffers of this
+     *
+     * O(n^2.81)
+    */
+    void multiply(double[] a, double[] b, double[] c, int n){
+        if(size == n){
+            multiply(a, 0, n, b, 0, n, c, 0, n, size, 0);
+            return;
+        }
+        pad(a, paddedA, n);
+        pad(b, paddedB, n);
+        multiply(paddedA, 0, size, paddedB, 0, size, paddedC, 0, size, size, 0);
+        for(int i = 0; i != n; i++){
+            System.arraycopy(paddedC, i*size, c, i*n, n);
+        }
+    }
+    /**
+     * Copy the n X n matrix 'original' into the top left of the size X size matrix 'padded'.
+     *
+     * @modifies padded
+     *
+     * O(n^2)
+    */
+    private void pad(double[] original, double[] padded, int n){
+        for(int i = 0; i != n; i++){
+            System.arraycopy(original, i*n, padded, i*size, n);
+        }
+    }
+    /**
+     * Compute the 'side' X 'side' product C = A*B where each operand is a block of a larger
+     * row-major array given by its offset and stride.
+     *
+     * @modifies c, the scratch buffers for 'level' and deeper
+     *
+     * O(side^2.81)
+    */
+    private void multiply(double[] a, int aOffset, int aStride, double[] b, int bOffset, int bStride, double[] c, int cOffset, int cStride, int side, int level){
+        if(level == levels){
+            MatrixKernels.multiply(a, aOffset, aStride, b, bOffset, bStride, c, cOffset, cStride, side, side, side, 0, side);
+            return;
+        }
+        int half = side/2;
+        int a11 = aOffset, a12 = aOffset + half, a21 = aOffset + half*aStride, a22 = a21 + half;
+        int b11 = bOffset, b12 = bOffset + half, b21 = bOffset + half*bStride, b22 = b21 + half;
+        int c11 = cOffset, c12 = cOffset + half, c21 = cOffset + half*cStride, c22 = c21 + half;
+        double[] s = left[level];
+        double[] t = right[level];
+        double[] p = products[level];
+        // M1 = (A11 + A22)(B11 + B22), C11 = C22 = M1
+        combine(a, a11, a22, aStride, 1, s, half);
+        combine(b, b11, b22, bStride, 1, t, half);
+        multiply(s, 0, half, t, 0, half, p, 0, half, half, level + 1);
+        store(p, c, c11, cStride, half);
+        store(p, c, c22, cStride, half);
+        // M2 = (A21 + A22)B11, C21 = M2, C22 -= M2
+        combine(a, a21, a22, aStride, 1, s, half);
+        multiply(s, 0, half, b, b11, bStride, p, 0, half, half, level + 1);
+        store(p, c, c21, cStride, half);
+        accumulate(p, c, c22, cStride, -1, half);
+        // M3 = A11(B12 - B22), C12 = M3, C22 += M3
+        combine(b, b12, b22, bStride, -1, t, half);
+        multiply(a, a11, aStride, t, 0, half, p, 0, half, half, level + 1);
+        store(p, c, c12, cStride, half);
+        accumulate(p, c, c22, cStride, 1, half);
+        // M4 = A22(B21 - B11), C11 += M4, C21 += M4
+        combine(b, b21, b11, bStride, -1, t, half);
+        multiply(a, a22, aStride, t, 0, half, p, 0, half, half, level + 1);
+        accumulate(p, c, c11, cStride, 1, half);
+        accumulate(p, c, c21, cStride, 1, half);
+        // M5 = (A11 + A12)B22, C11 -= M5, C12 += M5
+        combine(a, a11, a12, aStride, 1, s, half);
+        multiply(s, 0, half, b, b22, bStride, p, 0, half, half, level + 1);
+        accumulate(p, c, c11, cStride, -1, half);
+        accumulate(p, c, c12, cStride, 1, half);
+        // M6 = (A21 - A11)(B11 + B12), C22 += M6
+        combine(a, a21, a11, aStride, -1, s, half);
+        combine(b, b11, b12, bStride, 1, t, half);
+        multiply(s, 0, half, t, 0, half, p, 0, half, half, level + 1);
+        accumulate(p, c, c22, cStride, 1, half);
+        // M7 = (A12 - A22)(B21 + B22), C11 += M7
+        combine(a, a12, a22, aStride, -1, s, half);
+        combine(b, b21, b22, bStride, 1, t, half);
+        multiply(s, 0, half, t, 0, half, p, 0, half, half, level + 1);
+        accumulate(p, c, c11, cStride, 1, half);
+    }
+    /**
+     * Write block 'first' + 'sign' * block 'second' of 'source' into 'goal' with stride 'half'.
+     *
+     * @modifies goal
+     *
+     * O(half^2)
+    */
+    private static void combine(double[] source, int first, int second, int stride, double sign, double[] goal, int half){
+        int place = 0;
+        for(int i = 0; i != half; i++){
+            int row = i*stride;
+            for(int j = 0; j != half; j++){
+                goal[place++] = source[first + row + j] + sign*source[second + row + j];
+            }
+        }
+    }
+    /**
+     * Copy 'product' into the block of 'c' at 'offset'.
+     *
+     * @modifies c
+     *
+     * O(half^2)
+    */
+    private static void store(double[] product, double[] c, int offset, int stride, int half){
+        for(int i = 0; i != half; i++){
+            System.arraycopy(product, i*half, c, offset + i*stride, half);
+        }
+    }
+    /**
+     * Add 'sign' * 'product' into the block of 'c' at 'offset'.
+     *
+     * @modifies c
+     *
+     * O(half^2)
+    */
+    private static void accumulate(double[] product, double[] c, int offset, int stride, double sign, int half){
+        int place = 0;
+        for(int i = 0; i != half; i++){
+            int row = offset + i*stride;
+            for(int j = 0; j != half; j++){
+                c[row + j] += sign*product[place++];
+            }
+        }
+    }
+}
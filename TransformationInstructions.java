@@ -1,67 +1,211 @@
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * TransformationInstructions is a mutable list of opperations. These opperations can include
  * swap (awap two rows in a matrix), add (add a row to anouther rwo in a matrix), or scale (scale a row in a matrix).
  * Swap is 0, add is 1, and scale is 2.
+ *
+ * Before being applied the list is compiled: runs of consecutive swaps become one row permutation and
+ * consecutive scales of the same row become one scale. The compiled program is kept until the list changes.
 */
 public class TransformationInstructions {
     private ArrayList<Instruction> list;
+    // Compiled form of 'list', or null if 'list' changed since it was last compiled.
+    private ArrayList<Instruction> program;
+    // Largest row any instruction refers to, -1 if there are no instructions.
+    private int largestRow;
     TransformationInstructions(){
         list = new ArrayList<>();
+        largestRow = -1;
     }
+    /**
+     * Return 'matrix' with every instruction applied in order. 'matrix' is copied once and the
+     * instructions are applied to the copy in place.
+     *
+     * @param matrix matrix to transform.
+     * @throws IllegalArgumentException iff 'matrix' == null or an instruction refers to a row 'matrix' does not have.
+     * @return 'matrix' with every instruction applied.
+     *
+     * O(matrix.getN()*matrix.getM() + number of instructions*matrix.getM())
+    */
     public Matrix applyToMatrix(Matrix matrix){
-        for(int i = 0; i != list.size(); i++){
-            matrix = list.get(i).preformOpperation(matrix);
+        checkMatrix(matrix);
+        List<Instruction> program = compile();
+        double[] values = matrix.cloneArray();
+        for(int i = 0; i != program.size(); i++){
+            program.get(i).preformOpperation(values, matrix.getM());
         }
-        return matrix;
+        return new Matrix(matrix.getN(), matrix.getM(), values);
+    }
+    /**
+     * Apply every instruction in order to 'builder' in place.
+     *
+     * @param builder matrix to transform.
+     * @throws IllegalArgumentException iff 'builder' == null or an instruction refers to a row 'builder' does not have.
+     * @throws IllegalStateException iff 'builder' was frozen.
+     * @modifies builder
+     *
+     * O(number of instructions*builder.getM())
+    */
+    public void applyToBuilder(MatrixBuilder builder){
+        if(builder == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(largestRow >= builder.getN()){
+            throw new IllegalArgumentException("Instructions use row "+largestRow+" but matrix only has "+builder.getN()+" rows.");
+        }
+        List<Instruction> program = compile();
+        double[] values = builder.values();
+        for(int i = 0; i != program.size(); i++){
+            program.get(i).preformOpperation(values, builder.getM());
+        }
+    }
+    /**
+     * Return every matrix in 'matrices' with every instruction applied in order. The instructions are
+     * compiled once for the whole batch.
+     *
+     * @param matrices matrices to transform.
+     * @throws IllegalArgumentException iff 'matrices' == null, any matrix is null or an instruction refers
+     * to a row that matrix does not have.
+     * @return transformed matrices in the same order as 'matrices'.
+     *
+     * O(total size of 'matrices' + number of instructions*total width of 'matrices')
+    */
+    public List<Matrix> applyToMatrices(List<Matrix> matrices){
+        if(matrices == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        for(Matrix matrix: matrices){
+            checkMatrix(matrix);
+        }
+        compile();
+        List<Matrix> goal = new ArrayList<>(matrices.size());
+        for(Matrix matrix: matrices){
+            goal.add(applyToMatrix(matrix));
+        }
+        return goal;
     }
     public void appendSwapInstruction(int row_1, int row_2){
-        Swap a = new Swap(row_1, row_2, 0.);
-        list.add(a);
+        checkRow(row_1);
+        checkRow(row_2);
+        Permutation a = new Permutation(row_1, row_2);
+        append(a);
     }
     public void appendAddInstruction(int row_1, int row_2, double scale){
+        checkRow(row_1);
+        checkRow(row_2);
         Add a = new Add(row_1, row_2, scale);
-        list.add(a);
+        append(a);
     }
     public void appendScaleInstruction(int row_1, double scale){
+        checkRow(row_1);
         Scale a = new Scale(row_1, 0, scale);
-        list.add(a);
+        append(a);
     }
-    private class Instruction{
-        private final int placeOfRowBeingChanged;
-        private final int other;
-        private final double scale;
-        Instruction(int place, int other, double scale){
-            placeOfRowBeingChanged = place;
-            this.other = other;
-            this.scale = scale;
+    private void append(Instruction instruction){
+        list.add(instruction);
+        largestRow = Math.max(largestRow, Math.max(instruction.placeOfRowBeingChanged, instruction.other));
+        program = null;
+    }
+    /**
+     * Throw IllegalArgumentException if 'row' cannot be a row of a matrix.
+     *
+     * @throws IllegalArgumentException iff 'row' < 0
+     *
+     * O(1)
+    */
+    private static void checkRow(int row){
+        if(row < 0){
+            throw new IllegalArgumentException("Input row is "+row+" which is out of range. Should be atleast 0.");
         }
-        public Matrix preformOpperation(Matrix matrix){
-            throw new RuntimeException("This method is to only be run on subclasses of Instruction.");
+    }
+    /**
+     * Throw IllegalArgumentException if the instructions cannot be applied to 'matrix'.
+     *
+     * @throws IllegalArgumentException iff 'matrix' == null or an instruction refers to a row 'matrix' does not have.
+     *
+     * O(1)
+    */
+    private void checkMatrix(Matrix matrix){
+        if(matrix == null){
+            throw new IllegalArgumentException("Null input.");
         }
-        public static void main(String[] args){
-            //
+        if(largestRow >= matrix.getN()){
+            throw new IllegalArgumentException("Instructions use row "+largestRow+" but matrix only has "+matrix.getN()+" rows.");
         }
     }
-    private class Swap extends Instruction{
-        Swap(int place, int other, double scale){
-            super(place, other, scale);
+    /**
+     * Return the compiled program, compiling 'list' if it changed since the last call.
+     *
+     * @return instructions equivalent to 'list' with swaps and scales folded.
+     *
+     * O(number of instructions)
+    */
+    private List<Instruction> compile(){
+        if(program != null){
+            return program;
         }
-        @Override
-        public Matrix preformOpperation(Matrix matrix){
-            System.out.println("");
-            return matrix;
+        program = new ArrayList<>();
+        int i = 0;
+        while(i != list.size()){
+            Instruction instruction = list.get(i);
+            if(instruction instanceof Permutation){
+                // sources.get(row) is the row of the input that ends up in 'row'.
+                Map<Integer, Integer> sources = new HashMap<>();
+                for(; i != list.size() && list.get(i) instanceof Permutation; i++){
+                    ((Permutation)list.get(i)).foldInto(sources);
+                }
+                sources.entrySet().removeIf(entry -> entry.getKey().equals(entry.getValue()));
+                if(!sources.isEmpty()){
+                    program.add(new Permutation(sources));
+                }
+            }else if(instruction instanceof Scale){
+                double scale = 1;
+                for(; i != list.size() && list.get(i) instanceof Scale && list.get(i).placeOfRowBeingChanged == instruction.placeOfRowBeingChanged; i++){
+                    scale *= list.get(i).scale;
+                }
+                if(scale != 1){
+                    program.add(new Scale(instruction.placeOfRowBeingChanged, 0, scale));
+                }
+            }else{
+                program.add(instruction);
+                i++;
+            }
+        }
+        return program;
+    }
+    private abstract class Instruction{
+        protected final int placeOfRowBeingChanged;
+        protected final int other;
+        protected final double scale;
+        Instruction(int place, int other, double scale){
+            placeOfRowBeingChanged = place;
+            this.other = other;
+            this.scale = scale;
         }
+        /**
+         * Apply this instruction in place to the row-major array 'matrix' with 'width' columns.
+         *
+         * @param matrix row-major values to transform.
+         * @param width number of columns of 'matrix'.
+         * @modifies matrix
+        */
+        public abstract void preformOpperation(double[] matrix, int width);
     }
     private class Add extends Instruction{
         Add(int place, int other, double scale){
             super(place, other, scale);
         }
         @Override
-        public Matrix preformOpperation(Matrix matrix){
-            System.out.println("");
-            return matrix;
+        public void preformOpperation(double[] matrix, int width){
+            int row = placeOfRowBeingChanged*width;
+            int added = other*width;
+            for(int i = 0; i != width; i++){
+                matrix[row + i] += scale*matrix[added + i];
+            }
         }
     }
     private class Scale extends Instruction{
@@ -69,9 +213,90 @@ public class TransformationInstructions {
             super(place, other, scale);
         }
         @Override
-        public Matrix preformOpperation(Matrix matrix){
-            System.out.println("");
-            return matrix;
+        public void preformOpperation(double[] matrix, int width){
+            int row = placeOfRowBeingChanged*width;
+            for(int i = 0; i != width; i++){
+                matrix[row + i] *= scale;
+            }
+        }
+    }
+    /**
+     * A permutation of the rows it moves. Appended swaps are permutations of two rows, and compile()
+     * folds each run of them into one.
+    */
+    private class Permutation extends Instruction{
+        // Row rows[i] receives the input row sources[i].
+        private final int[] rows;
+        private final int[] sources;
+        // The moved rows in cycle order, each cycle ending where cycleEnds says. Row cycles[j] receives
+        // row cycles[j + 1], and the last row of a cycle receives its first.
+        private final int[] cycles;
+        private final int[] cycleEnds;
+        Permutation(int row_1, int row_2){
+            this(row_1, row_2, row_1 == row_2 ? Map.of() : Map.of(row_1, row_2, row_2, row_1));
+        }
+        Permutation(Map<Integer, Integer> sources){
+            this(0, 0, sources);
+        }
+        private Permutation(int place, int other, Map<Integer, Integer> sources){
+            super(place, other, 0.);
+            this.rows = new int[sources.size()];
+            this.sources = new int[sources.size()];
+            int i = 0;
+            for(Map.Entry<Integer, Integer> entry: sources.entrySet()){
+                this.rows[i] = entry.getKey();
+                this.sources[i] = entry.getValue();
+                i++;
+            }
+            this.cycles = new int[rows.length];
+            List<Integer> ends = new ArrayList<>();
+            Map<Integer, Integer> left = new HashMap<>(sources);
+            left.entrySet().removeIf(entry -> entry.getKey().equals(entry.getValue()));
+            int length = 0;
+            while(!left.isEmpty()){
+                int row = left.keySet().iterator().next();
+                while(left.containsKey(row)){
+                    cycles[length++] = row;
+                    row = left.remove(row);
+                }
+                ends.add(length);
+            }
+            this.cycleEnds = new int[ends.size()];
+            for(int j = 0; j != cycleEnds.length; j++){
+                cycleEnds[j] = ends.get(j);
+            }
+        }
+        /**
+         * Apply this after the permutation 'sources' maps out, where sources.get(row) is the row of the
+         * input that ends up in 'row'.
+         *
+         * @modifies sources
+        */
+        void foldInto(Map<Integer, Integer> sources){
+            int[] moved = new int[rows.length];
+            for(int i = 0; i != rows.length; i++){
+                moved[i] = sources.getOrDefault(this.sources[i], this.sources[i]);
+            }
+            for(int i = 0; i != rows.length; i++){
+                sources.put(rows[i], moved[i]);
+            }
+        }
+        @Override
+        public void preformOpperation(double[] matrix, int width){
+            // Swapping each row of a cycle with the next settles it, so no row needs to be buffered.
+            int start = 0;
+            for(int end: cycleEnds){
+                for(int j = start; j != end - 1; j++){
+                    int first = cycles[j]*width;
+                    int second = cycles[j + 1]*width;
+                    for(int x = 0; x != width; x++){
+                        double o = matrix[first + x];
+                        matrix[first + x] = matrix[second + x];
+                        matrix[second + x] = o;
+                    }
+                }
+                start = end;
+            }
         }
     }
 }
@@ -1,29 +1,212 @@
 import java.util.Set;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashSet;
 import java.util.PriorityQueue;
 
 /**
  * Immutable. Jobs on top(width, M, [][X]), workers in the left(height, n, [X][]).
+ *
+ * A WorkList built from an IntMatrix or LongMatrix is exact: its solvers add and compare the costs as
+ * longs, so ties and large integer costs are never rounded. An IntMatrix keeps its costs as ints, which
+ * are only widened to longs for the length of a solve, and the double Matrix of an exact list is only
+ * built if getMatrix() asks for it.
+ *
+ * The number of workers and jobs may differ, and pairs of a worker and a job may be forbidden. munkres()
+ * solves these directly. The other solvers need as many workers as jobs.
 */
 public class WorkList {
-    public final Matrix matrix;
+    private final int height;
+    private final int width;
+    // Costs as doubles. Built on the first getMatrix() call for exact lists, as they have the costs below.
+    private volatile Matrix matrix;
+    // Exact row-major costs when built from an IntMatrix, null otherwise.
+    private final int[] intCosts;
+    // Exact row-major costs when built from a LongMatrix, null otherwise.
+    private final long[] costs;
+    // Bit worker*getM() + job is set iff 'worker' may not do 'job', null if no pair is forbidden.
+    private final BitSet forbidden;
+    // Most open nodes branchAndBound keeps, beyond this it searches depth first.
+    static final int MAX_FRONTIER = 1 << 20;
     public WorkList(Matrix matrix){
-        if(matrix.getN() != matrix.getM()){
-            throw new IllegalArgumentException("Must be a A by A matrix, is "+matrix.getN()+" by "+matrix.getM()+" matrix.");
-        }
-        this.matrix = matrix;
+        this(checkNull(matrix).getN(), matrix.getM(), matrix, null, null, null);
     }
     public WorkList(double[][] matrix){
-        Matrix m = new Matrix(matrix);
-        if(matrix.length != matrix[0].length){
-            throw new IllegalArgumentException("Must be a A by A matrix, is "+matrix.length+" by "+matrix[0].length+" matrix.");
-        }
-        this.matrix = m;
+        this(new Matrix(matrix));
     }
+    /**
+     * Create a 'size'X'size' exact problem with random integer costs between 0 and 20.
+     *
+     * @param size number of workers and jobs.
+     * @throws IllegalArgumentException iff 'size' < 0.
+    */
     public WorkList(int size){
-        this.matrix = new Matrix(size, size, true).abs();
+        this(IntMatrix.of(new Matrix(size, size, true).abs()));
+    }
+    /**
+     * Create a 'size'X'size' exact problem with random integer costs between 0 and 20 generated from 'seed'.
+     * The same 'size' and 'seed' always give the same problem.
+     *
+     * @param size number of workers and jobs.
+     * @param seed seed of the costs.
+     * @throws IllegalArgumentException iff 'size' < 0.
+    */
+    public WorkList(int size, long seed){
+        this(new MatrixGenerator(seed).uniformInts(size, size, 0, 21));
+    }
+    /**
+     * Create an exact problem from integer costs.
+     *
+     * @param matrix costs, matrix.get(job, worker) is the cost of 'worker' doing 'job'.
+     * @throws IllegalArgumentException iff 'matrix' == null
+    */
+    public WorkList(IntMatrix matrix){
+        this(checkNull(matrix).getN(), matrix.getM(), null, matrix.cloneArray(), null, null);
+    }
+    /**
+     * Create an exact problem from long costs. getMatrix() holds the costs rounded to doubles.
+     *
+     * @param matrix costs, matrix.get(job, worker) is the cost of 'worker' doing 'job'.
+     * @throws IllegalArgumentException iff 'matrix' == null
+    */
+    public WorkList(LongMatrix matrix){
+        this(checkNull(matrix).getN(), matrix.getM(), null, null, matrix.cloneArray(), null);
+    }
+    /**
+     * Create a problem from float costs. The solvers run in doubles, which hold every float exactly, so
+     * the costs are widened once here.
+     *
+     * @param matrix costs, matrix.get(job, worker) is the cost of 'worker' doing 'job'.
+     * @throws IllegalArgumentException iff 'matrix' == null
+    */
+    public WorkList(FloatMatrix matrix){
+        this(checkNull(matrix).toMatrix());
+    }
+    private WorkList(int height, int width, Matrix matrix, int[] intCosts, long[] costs, BitSet forbidden){
+        this.height = height;
+        this.width = width;
+        this.matrix = matrix;
+        this.intCosts = intCosts;
+        this.costs = costs;
+        this.forbidden = forbidden;
+    }
+    private static <T> T checkNull(T ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        return ob;
+    }
+    /**
+     * Return the costs as a Matrix, matrix.get(job, worker) is the cost of 'worker' doing 'job'. The costs
+     * of a LongMatrix are rounded to doubles.
+     *
+     * O(getN()*getM()) on the first call for an exact list, O(1) otherwise
+    */
+    public Matrix getMatrix(){
+        Matrix goal = matrix;
+        if(goal == null){
+            goal = intCosts != null ? new IntMatrix(height, width, intCosts).toMatrix() : new LongMatrix(height, width, costs).toMatrix();
+            matrix = goal;
+        }
+        return goal;
+    }
+    /**
+     * Get the number of workers.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get the number of jobs.
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Return true if the solvers of this work on exact integer costs.
+     *
+     * @return true iff this was built from an IntMatrix or a LongMatrix.
+    */
+    public boolean isExact(){
+        return intCosts != null || costs != null;
+    }
+    /**
+     * Return the exact costs as longs, widening the costs of an IntMatrix into a new array.
+     *
+     * @spec.requires isExact()
+     *
+     * O(getN()*getM()) for an IntMatrix, O(1) otherwise
+    */
+    private long[] exactCosts(){
+        if(costs != null){
+            return costs;
+        }
+        long[] goal = new long[intCosts.length];
+        for(int i = 0; i != intCosts.length; i++){
+            goal[i] = intCosts[i];
+        }
+        return goal;
+    }
+    /**
+     * Return this with 'worker' forbidden from doing 'job'.
+     *
+     * @param worker worker, row of getMatrix().
+     * @param job job, column of getMatrix().
+     * @throws IllegalArgumentException iff 'worker' or 'job' is out of range.
+     * @return this with the pair forbidden.
+     *
+     * O(getN()*getM()/64)
+    */
+    public WorkList forbid(int worker, int job){
+        return forbid(new int[]{worker}, new int[]{job});
+    }
+    /**
+     * Return this with each workers[i] forbidden from doing jobs[i]. The solvers never assign a
+     * forbidden pair.
+     *
+     * @param workers workers, rows of getMatrix().
+     * @param jobs jobs, columns of getMatrix().
+     * @throws IllegalArgumentException iff 'workers' == null, 'jobs' == null, workers.length != jobs.length
+     * or a worker or job is out of range.
+     * @return this with the pairs forbidden.
+     *
+     * O(getN()*getM()/64 + workers.length)
+    */
+    public WorkList forbid(int[] workers, int[] jobs){
+        if(workers == null || jobs == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+        if(workers.length != jobs.length){
+            throw new IllegalArgumentException("Need a job for each worker, have "+workers.length+" workers and "+jobs.length+" jobs.");
+        }
+        BitSet goal = forbidden == null ? new BitSet() : (BitSet)forbidden.clone();
+        for(int i = 0; i != workers.length; i++){
+            if(workers[i] < 0 || workers[i] >= getN() || jobs[i] < 0 || jobs[i] >= getM()){
+                throw new IllegalArgumentException("No worker "+workers[i]+" and job "+jobs[i]+" in a "+getN()+" by "+getM()+" matrix.");
+            }
+            goal.set(workers[i]*getM() + jobs[i]);
+        }
+        return new WorkList(height, width, matrix, intCosts, costs, goal);
+    }
+    /**
+     * Return true if 'worker' may not do 'job'.
+     *
+     * @spec.requires 0 <= worker < getN(), 0 <= job < getM()
+     *
+     * O(1)
+    */
+    public boolean isForbidden(int worker, int job){
+        return forbidden != null && forbidden.get(worker*getM() + job);
+    }
+    private void checkSquare(){
+        if(getN() != getM()){
+            throw new IllegalStateException("Must be a A by A matrix, is "+getN()+" by "+getM()+" matrix.");
+        }
     }
     public static void main(String[] args){
         double[][] array = new double[4][4];
@@ -47,11 +230,11 @@ public class WorkList {
         array[3][2] = 15.0;
         array[3][3] = 10.0;
         WorkList a = new WorkList(5);
-        a.matrix.display();
+        a.getMatrix().display();
         int[] arr = a.munkres();
         //int[] arr2 = a.branchAndBound(true);
 
-        for(int i = 0; i != a.matrix.getM(); i++){
+        for(int i = 0; i != a.getM(); i++){
             System.out.println(arr[i]/* + " " + arr2[i]*/);
         }
         //WorkList a = new WorkList(18);
@@ -59,7 +242,7 @@ public class WorkList {
         //System.out.println();
         //int[] b  = a.branchAndBound(true);
         //int[] c = a.optimizeBruteForce();
-        //for(int i = 0; i != a.matrix.getM(); i++){
+        //for(int i = 0; i != a.getM(); i++){
         //    System.out.println(b[i]);
             //System.out.println(c[i]);
         //    System.out.println();
@@ -69,14 +252,16 @@ public class WorkList {
     /**
      * Find most efficient solution optimizing for larger size
      * 
-     * @return 
+     * @throws IllegalStateException iff getN() != getM()
+     * @return the job of each worker, or null if every assignment uses a forbidden pair.
     */
     public int[] optimizeBruteForce(){
+        checkSquare();
         Set<Integer> jobs = new HashSet<>();
-        for(int i = 0; i != matrix.getM(); i++){
+        for(int i = 0; i != getM(); i++){
             jobs.add(i);
         }
-        int[] board = new int[matrix.getM()];
+        int[] board = new int[getM()];
         return optimizeBruteForce(jobs, board);
     }
     public static int[] cloneArray(int[] array){
@@ -102,352 +287,807 @@ public class WorkList {
         if(numOfAssigned == jobBoard.length){
             return jobBoard;
         }
-        //Set up maxValue and maxJobs
-        Double maxValue = null;
+        //Set up maxJobs
         int[] maxJobs = null;
         for(Integer job: unassignedJobs){
+            if(isForbidden(numOfAssigned, job)){
+                continue;
+            }
             Set<Integer> restOfJobs = new HashSet<>(unassignedJobs);
             restOfJobs.remove(job);
             jobBoard[numOfAssigned] = job;
             int[] solution = optimizeBruteForce(restOfJobs, jobBoard);
-            if(maxValue == null){
-                maxValue = valueOfPath(solution);
-                maxJobs = solution;
-            }
-            if(valueOfPath(solution) > maxValue){
-                maxValue = valueOfPath(solution);
+            if(solution != null && (maxJobs == null || comparePaths(solution, maxJobs) > 0)){
                 maxJobs = solution;
             }
         }
         return maxJobs;
     }
-    /***/
+    /**
+     * Find the assignment with the largest values if 'max', otherwise the smallest, by a best first
+     * search over partial assignments. Workers are assigned in order and the jobs still open are kept
+     * as a bitmask.
+     *
+     * The search runs on reduced costs, the costs minus the row and column potentials munkres() ends
+     * with. Every full assignment uses each row and column once, so this shifts all of them by the same
+     * amount, and the reduced costs are never negative. Only the potentials are used: they tighten the
+     * bounds, while the search itself starts from a greedy assignment. A node's bound adds to its reduced
+     * cost the larger of two admissible estimates for the workers left: each takes its cheapest open job,
+     * or each open job goes to its cheapest worker left. Nodes that can not beat the best full assignment
+     * found so far are dropped. Once the frontier holds MAX_FRONTIER nodes, further nodes are searched
+     * depth first instead.
+     *
+     * @param max true to maximize the values, false to minimize them.
+     * @throws IllegalStateException iff getN() != getM() or getM() > 64
+     * @throws ArithmeticException iff this is exact and 4*getN() times the spread of the costs does not
+     * fit in a long.
+     * @return the job of each worker, or null if every assignment uses a forbidden pair.
+     *
+     * O(getN()!*getN()^2) worst case, O(MAX_FRONTIER) nodes of memory
+    */
     public int[] branchAndBound(boolean max){
-        if(max){
-            WorkList work = new WorkList(matrix.add(-matrix.getMax()).scale(-1));
-            return work.branchAndBound(false);
+        checkSquare();
+        int size = getN();
+        if(size > Long.SIZE){
+            throw new IllegalStateException("Can not branch and bound more than "+Long.SIZE+" jobs, have "+size+".");
+        }
+        if(size == 0){
+            return new int[0];
         }
-        PriorityQueue<Node> priorityQueue = new PriorityQueue<>(new NodeComparator());
-        for(int i = 0; i != matrix.getN(); i++){
-            priorityQueue.add(new Node(i));
+        long[] allowed = new long[size];
+        for(int worker = 0; worker != size; worker++){
+            for(int job = 0; job != size; job++){
+                if(!isForbidden(worker, job)){
+                    allowed[worker] |= 1L << job;
+                }
+            }
         }
-        while(!priorityQueue.isEmpty()){
-            Node node = priorityQueue.remove();
-            if(node.worker == matrix.getM()-1){
-                return node.listPath();
+        // Costs are minimized, so a maximized value becomes its distance below the largest value.
+        if(isExact()){
+            long[] costs = exactCosts();
+            long largest = Long.MIN_VALUE;
+            long smallest = Long.MAX_VALUE;
+            for(long value: costs){
+                largest = Math.max(largest, value);
+                smallest = Math.min(smallest, value);
+            }
+            // Reduced costs stay within four times the spread of the costs.
+            Math.multiplyExact(Math.subtractExact(largest, smallest), 4L*size);
+            long[] cost = new long[costs.length];
+            long[] negated = new long[costs.length];
+            for(int i = 0; i != cost.length; i++){
+                cost[i] = max ? largest - costs[i] : costs[i] - smallest;
+                negated[i] = -cost[i];
             }
-            Set<Node> nodes = node.getChildren();
-            for(Node n: nodes){
-                priorityQueue.add(n);
+            // The smallest cost is 0, so the solver's costs of largest - negated[i] are exactly 'cost'.
+            long[] u = new long[size + 1];
+            long[] v = new long[size + 1];
+            assign(negated, forbidden, size, size, u, v);
+            for(int i = 0; i != cost.length; i++){
+                cost[i] -= u[i/size + 1] + v[i%size + 1];
             }
+            return new LongSearch(cost, allowed, size).run();
+        }
+        Matrix matrix = getMatrix();
+        double[] values = matrix.sharedArray();
+        double extreme = max ? matrix.getMax() : matrix.getMin();
+        double[] cost = new double[values.length];
+        double[] negated = new double[values.length];
+        for(int i = 0; i != cost.length; i++){
+            cost[i] = max ? extreme - values[i] : values[i] - extreme;
+            negated[i] = -cost[i];
+        }
+        double[] u = new double[size + 1];
+        double[] v = new double[size + 1];
+        assign(negated, forbidden, size, size, u, v);
+        // Rounding can leave reduced costs a little below 0, clamp them so the bounds stay nonnegative.
+        for(int i = 0; i != cost.length; i++){
+            cost[i] = Math.max(0, cost[i] - (u[i/size + 1] + v[i%size + 1]));
         }
-        throw new IllegalAccessError();
+        return new DoubleSearch(cost, allowed, size).run();
     }
     /**
-     * Assign jobs and workers to minimize the values.
-     * 
-     * @return int array that represents the smallest selection of jobs and workers
+     * Assign jobs and workers to maximize the values, by the shortest augmenting path form of the
+     * Hungarian algorithm (Jonker-Volgenant). Workers are added one at a time. Each addition runs a
+     * Dijkstra search over the reduced costs, kept nonnegative by the row and column potentials, to the
+     * nearest unassigned job and flips the assignments along the way. Exact lists solve in longs.
+     *
+     * With more workers than jobs, jobs are given workers instead, so the searches scale with the
+     * smaller side. Forbidden pairs are left out of the searches. Of the assignments giving work to the
+     * most workers possible, the one with the largest values is returned.
+     *
+     * @throws ArithmeticException iff this is exact and four times the spread of the costs, times
+     * min(getN(), getM()) + 1 if a pair is forbidden, does not fit in a long.
+     * @spec.requires no special intups (NaN, infinity)
+     * @return int array that represents the largest selection of jobs and workers, -1 for a worker without
+     * a job. [person]->job
+     *
+     * O(min(getN(), getM())^2*max(getN(), getM()))
     */
     public int[] munkres(){
-        int[] goal = new int[matrix.getM()];
-        double[][] matrix = this.matrix.getDoubleArray();
-        boolean[][] marked = null;
-        // for each entry matrix[i][j]-=max
-        double max = this.matrix.getMax();
-        for(int i = 0; i != matrix.length; i++){
-            for(int j = 0; j != matrix.length; j++){
-                matrix[i][j] *= -1;
-                matrix[i][j] += max;
-            }
-        }
-        // Row reduce
-        for(int i = 0; i != matrix.length; i++){
-            rowReduce(matrix, i);
-        }
-        // Column reduce
-        for(int i = 0; i != matrix.length; i++){
-            colunmReduce(matrix, i);
-        }
-        //
-        Set<Integer> columns = null;
-        Set<Integer> rows = null;
-        int lines = 0;
-        while(lines != goal.length){
-            columns = new HashSet<>();
-            rows = new HashSet<>();
-            marked = new boolean[matrix.length][matrix.length];
-            lines = 0;
-            //
-            for(int i = 0; i != matrix.length; i++){
-                int zeroLocation = findZeroInRow(matrix, i, rows, columns);
-                if(zeroLocation != -1){
-                    marked[i][zeroLocation] = true;
-                    columns.add(zeroLocation);
-                    lines++;
-                }
+        int workers = getN();
+        int jobs = getM();
+        if(workers == 0 || jobs == 0){
+            int[] goal = new int[workers];
+            Arrays.fill(goal, -1);
+            return goal;
+        }
+        if(workers <= jobs){
+            if(isExact()){
+                return assign(exactCosts(), forbidden, workers, jobs);
             }
-            //
-            for(int i = 0; i != matrix.length; i++){
-                int zeroLocation = findZeroInColumn(matrix, i, rows, columns);
-                if(zeroLocation != -1){
-                    marked[zeroLocation][i] = true;
-                    rows.add(zeroLocation);
-                    lines++;
-                }
+            return assign(getMatrix().sharedArray(), forbidden, workers, jobs);
+        }
+        BitSet flipped = transpose(forbidden, workers, jobs);
+        int[] workerOf;
+        if(isExact()){
+            workerOf = assign(transpose(exactCosts(), workers, jobs), flipped, jobs, workers);
+        }else{
+            workerOf = assign(getMatrix().transpose().sharedArray(), flipped, jobs, workers);
+        }
+        int[] goal = new int[workers];
+        Arrays.fill(goal, -1);
+        for(int job = 0; job != jobs; job++){
+            if(workerOf[job] != -1){
+                goal[workerOf[job]] = job;
             }
-            while(!allZerosCoverted(matrix, rows, columns)){
-                for(int i = 0; i < matrix.length; i++){
-                    for(int j = 0; j != matrix.length && i < matrix.length; j++){
-                        if(matrix[i][j] == 0 && !rows.contains(i) && !columns.contains(j)){
-                            marked[i][j] = true;
-                            columns.add(j);
-                            lines++;
-
-                            i++;
-                            j = -1;
-                        }
+        }
+        return goal;
+    }
+    /**
+     * Find the assignment of rows to columns maximizing the sum of the row-major 'rows'X'columns'
+     * 'values', never using a pair set in 'forbidden'. Costs are the largest value minus each value,
+     * so every cost is nonnegative. With forbidden pairs each row also has a private column for leaving
+     * it unassigned, at dropPenalty(), so the most rows possible are assigned.
+     *
+     * @spec.requires rows <= columns
+     * @return the column of each row, -1 for a row left unassigned.
+     *
+     * O(rows^2*columns)
+    */
+    private static int[] assign(double[] values, BitSet forbidden, int rows, int columns){
+        return assign(values, forbidden, rows, columns, new double[rows + 1], new double[columns + 1]);
+    }
+    /**
+     * assign(values, forbidden, rows, columns) that leaves the row potentials of the final costs in
+     * u[1..rows] and the column potentials in v[1..columns]. Then u[i] + v[j] is at most the cost of
+     * every allowed pair.
+     *
+     * @spec.requires u.length == rows + 1, v.length == columns + 1, both all 0.
+     * @modifies u, v
+    */
+    private static int[] assign(double[] values, BitSet forbidden, int rows, int columns, double[] u, double[] v){
+        // The long assign below mirrors this line for line, keep the two in step.
+        double largest = ArrayKernels.INSTANCE.max(values, values.length);
+        double spread = largest - ArrayKernels.INSTANCE.min(values, values.length);
+        double penalty = forbidden == null ? 0 : dropPenalty(spread, rows);
+        // Columns are 1-indexed so that 0 can mark the row being added. p[column] is the row of 'column'
+        // and way[column] the column before it on the shortest path.
+        double[] distance = new double[columns + 1];
+        int[] p = new int[columns + 1];
+        int[] way = new int[columns + 1];
+        // Unvisited columns of the current search are unvisited[visited..columns).
+        int[] unvisited = new int[columns];
+        boolean[] assigned = new boolean[rows + 1];
+        if(rows == columns && forbidden == null){
+            // Column reduction: start each column's potential at its cheapest cost and give it to that row
+            // if the row is still free. Only the rows left free need a search. Left out when some columns
+            // stay free, as their potentials must stay 0.
+            int[] cheapest = new int[columns + 1];
+            Arrays.fill(v, Double.POSITIVE_INFINITY);
+            for(int i = 1; i <= rows; i++){
+                int row = (i - 1)*columns - 1;
+                for(int j = 1; j <= columns; j++){
+                    double cur = largest - values[row + j];
+                    if(cur < v[j]){
+                        v[j] = cur;
+                        cheapest[j] = i;
                     }
                 }
             }
-            if(lines != goal.length){
-                double min = findMinOf(matrix, rows, columns);
-                for(int i = 0; i != matrix.length; i++){
-                    for(int j = 0; j != matrix.length; j++){
-                        if(rows.contains(i) && columns.contains(j)){
-                            matrix[i][j] += min;
-                        }
-                        else if(!rows.contains(i) && !columns.contains(j)){
-                            matrix[i][j] -= min;
-                        }
-                    }
+            for(int j = 1; j <= columns; j++){
+                if(!assigned[cheapest[j]]){
+                    assigned[cheapest[j]] = true;
+                    p[j] = cheapest[j];
                 }
             }
         }
-        // Copy matrix into goal
-        for(int i = 0; i != marked.length; i++){
-            for(int j = 0; j != marked.length; j++){
-                if(marked[i][j]){
-                    goal[i] = j;
+        for(int free = 1; free <= rows; free++){
+            if(assigned[free]){
+                continue;
+            }
+            // Dijkstra from 'free' over the reduced costs. Potentials are only updated once the
+            // path is found, from the distance each visited column was reached at.
+            for(int j = 0; j != columns; j++){
+                unvisited[j] = j + 1;
+            }
+            Arrays.fill(distance, Double.POSITIVE_INFINITY);
+            int visited = 0;
+            int worker = free;
+            int from = 0;
+            double reached = 0;
+            // Shortest path ending by leaving a visited row unassigned, which is always free.
+            double dropDistance = Double.POSITIVE_INFINITY;
+            int dropFrom = 0;
+            int next;
+            while(true){
+                int row = (worker - 1)*columns - 1;
+                double base = reached - u[worker];
+                double delta = Double.POSITIVE_INFINITY;
+                int place = -1;
+                for(int c = visited; c != columns; c++){
+                    int j = unvisited[c];
+                    if(forbidden == null || !forbidden.get(row + j)){
+                        double cur = base + largest - values[row + j] - v[j];
+                        if(cur < distance[j]){
+                            distance[j] = cur;
+                            way[j] = from;
+                        }
+                    }
+                    // On a tie prefer a free column, which ends the search.
+                    if(place == -1 || distance[j] < delta || (distance[j] == delta && p[j] == 0 && p[unvisited[place]] != 0)){
+                        delta = distance[j];
+                        place = c;
+                    }
+                }
+                if(forbidden != null && base + penalty < dropDistance){
+                    dropDistance = base + penalty;
+                    dropFrom = from;
+                }
+                next = unvisited[place];
+                if(forbidden != null && dropDistance <= delta){
+                    next = -1;
+                    break;
+                }
+                if(p[next] == 0){
+                    break;
                 }
+                unvisited[place] = unvisited[visited];
+                unvisited[visited++] = next;
+                reached = delta;
+                from = next;
+                worker = p[next];
+            }
+            double total = next == -1 ? dropDistance : distance[next];
+            for(int c = 0; c != visited; c++){
+                int j = unvisited[c];
+                double change = total - distance[j];
+                v[j] -= change;
+                u[p[j]] += change;
+            }
+            u[free] += total;
+            // Flip the assignments along the augmenting path. A path ending in a drop leaves the row
+            // reached through 'dropFrom' unassigned.
+            for(int j = next == -1 ? dropFrom : next; j != 0; j = way[j]){
+                p[j] = way[j] == 0 ? free : p[way[j]];
             }
         }
-        return goal;
+        return columnsOf(p, rows, columns);
     }
-    private double findMinOf(double[][] matrix, Set<Integer> rows, Set<Integer> columns){
-        double min = Double.MAX_VALUE;
-        for(int i = 0; i != matrix.length; i++){
-            for(int j = 0; j != matrix.length; j++){
-                if(min > matrix[i][j] && !rows.contains(i) && !columns.contains(j)){
-                    min = matrix[i][j];
+    /**
+     * Find the assignment of rows to columns maximizing the sum of the row-major 'rows'X'columns'
+     * 'values' exactly, never using a pair set in 'forbidden'. Costs are the largest value minus each
+     * value, so every cost is a nonnegative long. Rows may be left unassigned as in the double version.
+     * The double version is the same loop, this one only adds the overflow checks.
+     *
+     * @throws ArithmeticException iff the potentials could overflow a long.
+     * @spec.requires rows <= columns
+     * @return the column of each row, -1 for a row left unassigned.
+     *
+     * O(rows^2*columns)
+    */
+    private static int[] assign(long[] values, BitSet forbidden, int rows, int columns){
+        return assign(values, forbidden, rows, columns, new long[rows + 1], new long[columns + 1]);
+    }
+    /**
+     * assign(values, forbidden, rows, columns) that leaves the row potentials of the final costs in
+     * u[1..rows] and the column potentials in v[1..columns]. Then u[i] + v[j] is at most the cost of
+     * every allowed pair.
+     *
+     * @spec.requires u.length == rows + 1, v.length == columns + 1, both all 0.
+     * @modifies u, v
+    */
+    private static int[] assign(long[] values, BitSet forbidden, int rows, int columns, long[] u, long[] v){
+        // Mirrors the double assign above line for line, keep the two in step.
+        long largest = Long.MIN_VALUE;
+        long smallest = Long.MAX_VALUE;
+        for(long value: values){
+            largest = Math.max(largest, value);
+            smallest = Math.min(smallest, value);
+        }
+        long spread = Math.subtractExact(largest, smallest);
+        long penalty = forbidden == null ? 0 : dropPenalty(spread, rows);
+        // Every row can reach a free column, whose potential never moves, so each potential stays
+        // within the largest cost, the penalty included, and each distance within four times it.
+        Math.multiplyExact(Math.max(spread, penalty), 4);
+        // Columns are 1-indexed so that 0 can mark the row being added. p[column] is the row of 'column'
+        // and way[column] the column before it on the shortest path.
+        long[] distance = new long[columns + 1];
+        int[] p = new int[columns + 1];
+        int[] way = new int[columns + 1];
+        // Unvisited columns of the current search are unvisited[visited..columns).
+        int[] unvisited = new int[columns];
+        boolean[] assigned = new boolean[rows + 1];
+        if(rows == columns && forbidden == null){
+            // Column reduction: start each column's potential at its cheapest cost and give it to that row
+            // if the row is still free. Only the rows left free need a search. Left out when some columns
+            // stay free, as their potentials must stay 0.
+            int[] cheapest = new int[columns + 1];
+            Arrays.fill(v, Long.MAX_VALUE);
+            for(int i = 1; i <= rows; i++){
+                int row = (i - 1)*columns - 1;
+                for(int j = 1; j <= columns; j++){
+                    long cur = largest - values[row + j];
+                    if(cur < v[j]){
+                        v[j] = cur;
+                        cheapest[j] = i;
+                    }
+                }
+            }
+            for(int j = 1; j <= columns; j++){
+                if(!assigned[cheapest[j]]){
+                    assigned[cheapest[j]] = true;
+                    p[j] = cheapest[j];
                 }
             }
         }
-        return min;
-    }
-    private boolean allZerosCoverted(double[][] matrix, Set<Integer> rows, Set<Integer> columns){
-        for(int i = 0; i != matrix.length; i++){
-            for(int j = 0; j != matrix.length; j++){
-                if(!rows.contains(i) && !columns.contains(j) && matrix[i][j] == 0){
-                    return false;
+        for(int free = 1; free <= rows; free++){
+            if(assigned[free]){
+                continue;
+            }
+            // Dijkstra from 'free' over the reduced costs. Potentials are only updated once the
+            // path is found, from the distance each visited column was reached at.
+            for(int j = 0; j != columns; j++){
+                unvisited[j] = j + 1;
+            }
+            Arrays.fill(distance, Long.MAX_VALUE);
+            int visited = 0;
+            int worker = free;
+            int from = 0;
+            long reached = 0;
+            // Shortest path ending by leaving a visited row unassigned, which is always free.
+            long dropDistance = Long.MAX_VALUE;
+            int dropFrom = 0;
+            int next;
+            while(true){
+                int row = (worker - 1)*columns - 1;
+                long base = reached - u[worker];
+                long delta = Long.MAX_VALUE;
+                int place = -1;
+                for(int c = visited; c != columns; c++){
+                    int j = unvisited[c];
+                    if(forbidden == null || !forbidden.get(row + j)){
+                        long cur = base + largest - values[row + j] - v[j];
+                        if(cur < distance[j]){
+                            distance[j] = cur;
+                            way[j] = from;
+                        }
+                    }
+                    // On a tie prefer a free column, which ends the search.
+                    if(place == -1 || distance[j] < delta || (distance[j] == delta && p[j] == 0 && p[unvisited[place]] != 0)){
+                        delta = distance[j];
+                        place = c;
+                    }
+                }
+                if(forbidden != null && base + penalty < dropDistance){
+                    dropDistance = base + penalty;
+                    dropFrom = from;
+                }
+                next = unvisited[place];
+                if(forbidden != null && dropDistance <= delta){
+                    next = -1;
+                    break;
+                }
+                if(p[next] == 0){
+                    break;
                 }
+                unvisited[place] = unvisited[visited];
+                unvisited[visited++] = next;
+                reached = delta;
+                from = next;
+                worker = p[next];
+            }
+            long total = next == -1 ? dropDistance : distance[next];
+            for(int c = 0; c != visited; c++){
+                int j = unvisited[c];
+                long change = total - distance[j];
+                v[j] -= change;
+                u[p[j]] += change;
+            }
+            u[free] += total;
+            // Flip the assignments along the augmenting path. A path ending in a drop leaves the row
+            // reached through 'dropFrom' unassigned.
+            for(int j = next == -1 ? dropFrom : next; j != 0; j = way[j]){
+                p[j] = way[j] == 0 ? free : p[way[j]];
             }
         }
-        return true;
+        return columnsOf(p, rows, columns);
     }
     /**
-     * Find a place to put a verticle line to cover the only 0 in row 'row'
-     * and return -1 if there is more or less than 1 availible zero in that row.
-     * 
-     * @param matrix matrix to search for zero
-     * @param row in 'matrix' to search for zero in
-     * @param rows locations of all already existing rows
-     * @param columns locations of all already existing columns
-     * 
-     * @requires no special intups (NaN, null)
-     * @requires matrix.length > row >= 0
-     * 
-     * @return column of availible 0 or -1 if non exists
+     * Return the cost assign() gives leaving a row unassigned, (rows + 1)*spread + 1. The costs of
+     * assign() start at 0, so assigning one more row is always cheaper than any difference in the costs
+     * of the assigned rows. dropPenalty(long, int) is the same rule in exact arithmetic.
+     *
+     * @param spread largest cost minus smallest cost.
+     * @param rows number of rows.
     */
-    private static int findZeroInRow(double[][] matrix, int row, Set<Integer> rows, Set<Integer> columns){
-        int zeroLocation = -1;
-        if(rows.contains(row)){
-            return zeroLocation;
-        }
-        for(int i = 0; i != matrix.length; i++){
-            if(!columns.contains(i) && matrix[row][i] == 0){
-                if(zeroLocation == -1){
-                    zeroLocation = i;
-                }else{
-                    return -1;
-                }
-            }
-        }
-        return zeroLocation;
+    private static double dropPenalty(double spread, int rows){
+        return (rows + 1.0)*spread + 1;
     }
     /**
-     * Find a place to put a horizontile line to cover the only 0 in column 'column'
-     * and return -1 if there is more or less than 1 availible zero in that column.
-     * 
-     * @param matrix matrix to search for zero
-     * @param column in 'matrix' to search for zero in
-     * @param rows locations of all already existing rows
-     * @param columns locations of all already existing columns
-     * 
-     * @requires no special intups (NaN, null)
-     * @requires matrix.length > column >= 0
-     * 
-     * @return row of availible 0 or -1 if non exists
+     * dropPenalty(double, int) in exact arithmetic.
+     *
+     * @throws ArithmeticException iff the penalty does not fit in a long.
     */
-    private static int findZeroInColumn(double[][] matrix, int column, Set<Integer> rows, Set<Integer> columns){
-        int zeroLocation = -1;
-        if(columns.contains(column)){
-            return zeroLocation;
-        }
-        for(int i = 0; i != matrix.length; i++){
-            if(!rows.contains(i) && matrix[i][column] == 0){
-                if(zeroLocation == -1){
-                    zeroLocation = i;
-                }else{
-                    return -1;
-                }
-            }
-        }
-        return zeroLocation;
+    private static long dropPenalty(long spread, int rows){
+        return Math.addExact(Math.multiplyExact(spread, rows + 1L), 1);
     }
     /**
-     * Row reduce all items in row 'row'.
-     * 
-     * @param matrix matrix to row reduce
-     * @param row row to row reduce
-     * @requires matrix != null, row != NaN, matrix.length > row > 0, matrix[row][0]...matrix[row][matrix[row].length-1] >= 0, matrix.length == matrix[].length
-     * @return matrix where we subtract the minimum value in row 'row' from all other
-     * entries in row 'row'
+     * Turn the row of each 1-indexed column into the column of each 0-indexed row.
     */
-    private static void rowReduce(double[][] matrix, int row){
-        double min = matrix[row][0];
-        for(int i = 1; i != matrix.length; i++){
-            if(min > matrix[row][i]){
-                min = matrix[row][i];
+    private static int[] columnsOf(int[] p, int rows, int columns){
+        int[] goal = new int[rows];
+        Arrays.fill(goal, -1);
+        for(int j = 1; j <= columns; j++){
+            if(p[j] != 0){
+                goal[p[j] - 1] = j - 1;
             }
         }
-        for(int i = 0; i != matrix.length; i++){
-            matrix[row][i] -= min;
-        }
+        return goal;
     }
-        /**
-     * Row reduce all items in colunm 'colunm'.
-     * 
-     * @param matrix matrix to colunm reduce
-     * @param colunm colunm to colunm reduce
-     * @requires matrix != null, colunm != NaN, matrix.length > colunm > 0, matrix[0][colunm]...matrix[matrix.length-1][colunm] >= 0, matrix.length == matrix[].length
-     * @return matrix where we subtract the minimum value in colunm 'colunm' from all other
-     * entries in colunm 'colunm'
-    */
-    private static void colunmReduce(double[][] matrix, int colunm){
-        double min = matrix[0][colunm];
-        for(int i = 1; i != matrix.length; i++){
-            if(min > matrix[i][colunm]){
-                min = matrix[i][colunm];
+    private static long[] transpose(long[] values, int height, int width){
+        long[] goal = new long[values.length];
+        for(int y = 0; y != height; y++){
+            for(int x = 0; x != width; x++){
+                goal[x*height + y] = values[y*width + x];
             }
         }
-        for(int i = 0; i != matrix.length; i++){
-            matrix[i][colunm] -= min;
+        return goal;
+    }
+    private static BitSet transpose(BitSet pairs, int height, int width){
+        if(pairs == null){
+            return null;
+        }
+        BitSet goal = new BitSet();
+        for(int i = pairs.nextSetBit(0); i != -1; i = pairs.nextSetBit(i + 1)){
+            goal.set(i%width*height + i/width);
         }
+        return goal;
     }
     /**
      * Calculate the productivity/cost of varius people working varius jobs. [person]->job
      * 
-     * @param path the jobs each worker works.
-     * @throws IllegalArgumentException iff path.length!=matrix.getM() || path == null
-     * @spec.requires Each element of path is no more than matrix.getM()
+     * @param path the jobs each worker works, -1 for a worker without a job.
+     * @throws IllegalArgumentException iff path == null || path.length != getN()
+     * @spec.requires Each element of path is -1 or less than getM()
      * @return productivity/cost of specified work assignments
     */
     public double valueOfPath(int[] path){
-        if(path.length!=matrix.getM() || path == null){
+        if(path == null || path.length != getN()){
             throw new IllegalArgumentException();
         }
+        if(isExact()){
+            return costOfPath(path);
+        }
         double total = 0;
         for(int i = 0; i != path.length; i++){
-            total += matrix.get(path[i], i);
+            if(path[i] != -1){
+                total += getMatrix().get(path[i], i);
+            }
         }
         return total;
     }
-    private static class NodeComparator implements Comparator<Node>{
-        @Override
-        public int compare(Node node1, Node node2){
-            return (int)Double.compare(node1.getCost(), node2.getCost());
+    /**
+     * Calculate the exact cost of varius people working varius jobs. [person]->job
+     *
+     * @param path the jobs each worker works, -1 for a worker without a job.
+     * @throws IllegalArgumentException iff path == null || path.length != getN()
+     * @throws IllegalStateException iff !isExact()
+     * @throws ArithmeticException iff the cost overflows a long.
+     * @spec.requires Each element of path is -1 or less than getM()
+     * @return exact cost of specified work assignments
+    */
+    public long costOfPath(int[] path){
+        if(path == null || path.length != getN()){
+            throw new IllegalArgumentException();
+        }
+        if(!isExact()){
+            throw new IllegalStateException("Costs are not exact.");
+        }
+        long total = 0;
+        for(int i = 0; i != path.length; i++){
+            if(path[i] != -1){
+                int place = i*width + path[i];
+                total = Math.addExact(total, intCosts != null ? intCosts[place] : costs[place]);
+            }
+        }
+        return total;
+    }
+    /**
+     * Compare the values of two paths, exactly if this is exact.
+     *
+     * @return a negative number, zero or a positive number as 'path1' is worth less than, the same as or more than 'path2'.
+    */
+    private int comparePaths(int[] path1, int[] path2){
+        if(isExact()){
+            return Long.compare(costOfPath(path1), costOfPath(path2));
         }
+        return Double.compare(valueOfPath(path1), valueOfPath(path2));
     }
     /**
-     * Immutable Node that keeps track of the worker assigned to a job and the previus node.
-     * Nodes form lines that represent people working varius jobs.
+     * The branch and bound search of branchAndBound() over the costs of worker*size + job, minimized.
+     * Costs and their sums are longs that only cost(), add() and less() interpret: LongSearch uses them
+     * as they are and DoubleSearch holds the bits of doubles. 0L is a cost of 0 in both.
     */
-    private class Node implements Comparable<Node>{
-        private final Node prev;
-        private final int worker;
-        private final double cost;
-        private final int job;
-        private final Set<Integer> possibleJobs;
+    private abstract static class Search {
+        // Bit 'job' of allowed[worker] is set iff 'worker' may do 'job'.
+        private final long[] allowed;
+        private final int size;
+        // Bound of the open jobs when they can not all be assigned.
+        private final long infinity;
+        private final long[] columnMinimum;
+        // Bounds and jobs of the children of each depth of the depth first search.
+        private final long[][] childBounds;
+        private final int[][] childJobs;
+        private final int[] path;
+        private int[] best;
+        private long bestCost;
+
+        Search(long[] allowed, int size, long infinity){
+            this.allowed = allowed;
+            this.size = size;
+            this.infinity = infinity;
+            columnMinimum = new long[size];
+            childBounds = new long[size][size];
+            childJobs = new int[size][size];
+            path = new int[size];
+        }
+        /**
+         * Return the cost of index worker*size + job.
+        */
+        abstract long cost(int index);
         /**
-         * Initiate a Node to represent the first worker working at job 'job'.
-         * 
-         * @param job the job that will be worked by this worker
+         * Return the sum of the costs 'a' and 'b'.
         */
-        public Node(int job){
-            this.job = job;
-            this.prev = null;
-            worker = 0;
-            cost = matrix.get(job, worker);
-            possibleJobs = new HashSet<>();
-            for(int i = 0; i != matrix.getM(); i++){
-                possibleJobs.add(i);
+        abstract long add(long a, long b);
+        /**
+         * Return true iff the cost 'a' is less than the cost 'b'.
+        */
+        abstract boolean less(long a, long b);
+        /**
+         * Return the cheapest assignment, starting from a greedy one.
+         *
+         * @return the job of each worker, or null if every assignment uses a forbidden pair.
+        */
+        final int[] run(){
+            long open = size == Long.SIZE ? -1L : (1L << size) - 1;
+            bestCost = infinity;
+            greedy(open);
+            long rootBound = lowerBound(0, open);
+            if(rootBound == infinity){
+                return null;
             }
-            possibleJobs.remove(job);
+            PriorityQueue<Node> frontier = new PriorityQueue<>(this::compare);
+            frontier.add(new Node(null, -1, 0, open, 0, rootBound));
+            while(!frontier.isEmpty()){
+                Node node = frontier.remove();
+                if(!less(node.bound, bestCost)){
+                    break;
+                }
+                if(frontier.size() >= MAX_FRONTIER){
+                    for(Node at = node; at.prev != null; at = at.prev){
+                        path[at.depth - 1] = at.job;
+                    }
+                    depthFirst(node.depth, node.open, node.cost);
+                    continue;
+                }
+                int row = node.depth*size;
+                for(long options = node.open & allowed[node.depth]; options != 0; options &= options - 1){
+                    int job = Long.numberOfTrailingZeros(options);
+                    long cost = add(node.cost, cost(row + job));
+                    long rest = node.open & ~(1L << job);
+                    if(node.depth + 1 == size){
+                        if(less(cost, bestCost)){
+                            bestCost = cost;
+                            best = new Node(node, job, size, rest, cost, cost).listPath(size);
+                        }
+                        continue;
+                    }
+                    long bound = lowerBound(node.depth + 1, rest);
+                    if(bound != infinity && less(add(cost, bound), bestCost)){
+                        frontier.add(new Node(node, job, node.depth + 1, rest, cost, add(cost, bound)));
+                    }
+                }
+            }
+            return best;
         }
         /**
-         * Initiate a Node for the next worker after 'prev' with job 'job'.
-         * 
-         * @param job the job that is being worked
-         * @param prev previus node for this path.
+         * Assign each worker in order its cheapest open job, and keep the result as the best assignment
+         * if every worker gets one.
         */
-        private Node(int job, Node prev){
-            this.job = job;
-            this.prev = prev;
-            worker = prev.worker+1;
-            cost = prev.getCost()+matrix.get(job, worker);
-            possibleJobs = new HashSet<>(prev.possibleJobs);
-            possibleJobs.remove(job);
+        private void greedy(long open){
+            long spent = 0;
+            for(int worker = 0; worker != size; worker++){
+                int choice = -1;
+                int row = worker*size;
+                for(long options = open & allowed[worker]; options != 0; options &= options - 1){
+                    int job = Long.numberOfTrailingZeros(options);
+                    if(choice == -1 || less(cost(row + job), cost(row + choice))){
+                        choice = job;
+                    }
+                }
+                if(choice == -1){
+                    return;
+                }
+                path[worker] = choice;
+                spent = add(spent, cost(row + choice));
+                open &= ~(1L << choice);
+            }
+            bestCost = spent;
+            best = path.clone();
         }
         /**
-         * Create a new Node that forms the previus path plus the next job,
-         * job by job 'job'.
+         * Order by bound, deeper nodes first on a tie.
         */
-        public Node assignJob(int job){
-            return new Node(job, this);
+        private int compare(Node first, Node second){
+            if(less(first.bound, second.bound)){
+                return -1;
+            }
+            if(less(second.bound, first.bound)){
+                return 1;
+            }
+            return Integer.compare(second.depth, first.depth);
         }
-        public int[] listPath(){
-            int[] goal = new int[matrix.getM()];
-            return listPath(goal, matrix.getM()-1);
+        /**
+         * Return a lower bound on the cost of assigning the workers from 'depth' on to the 'open' jobs,
+         * or 'infinity' if one of them has no job it may do or one of the jobs has no worker.
+         *
+         * O((size - depth)^2)
+        */
+        private long lowerBound(int depth, long open){
+            Arrays.fill(columnMinimum, infinity);
+            long rows = 0;
+            for(int worker = depth; worker != size; worker++){
+                long options = open & allowed[worker];
+                if(options == 0){
+                    return infinity;
+                }
+                long cheapest = infinity;
+                int row = worker*size;
+                for(; options != 0; options &= options - 1){
+                    int job = Long.numberOfTrailingZeros(options);
+                    long value = cost(row + job);
+                    if(less(value, cheapest)){
+                        cheapest = value;
+                    }
+                    if(less(value, columnMinimum[job])){
+                        columnMinimum[job] = value;
+                    }
+                }
+                rows = add(rows, cheapest);
+            }
+            long columns = 0;
+            for(long jobs = open; jobs != 0; jobs &= jobs - 1){
+                long cheapest = columnMinimum[Long.numberOfTrailingZeros(jobs)];
+                if(cheapest == infinity){
+                    return infinity;
+                }
+                columns = add(columns, cheapest);
+            }
+            return less(rows, columns) ? columns : rows;
         }
-        public int[] listPath(int[] path, int i){
-            path[i] = job;
-            if(prev == null){
-                return path;
+        /**
+         * Search every assignment of the workers from 'depth' on to the 'open' jobs, cheapest bound
+         * first, after the jobs in path[0..depth) that cost 'spent'.
+         *
+         * @modifies this
+        */
+        private void depthFirst(int depth, long open, long spent){
+            long[] bounds = childBounds[depth];
+            int[] jobs = childJobs[depth];
+            int children = 0;
+            int row = depth*size;
+            for(long options = open & allowed[depth]; options != 0; options &= options - 1){
+                int job = Long.numberOfTrailingZeros(options);
+                long bound = depth + 1 == size ? 0 : lowerBound(depth + 1, open & ~(1L << job));
+                if(bound == infinity){
+                    continue;
+                }
+                bound = add(bound, add(spent, cost(row + job)));
+                // Insertion sort, there are at most 64 children.
+                int place = children++;
+                while(place != 0 && less(bound, bounds[place - 1])){
+                    bounds[place] = bounds[place - 1];
+                    jobs[place] = jobs[place - 1];
+                    place--;
+                }
+                bounds[place] = bound;
+                jobs[place] = job;
+            }
+            for(int i = 0; i != children && less(bounds[i], bestCost); i++){
+                int job = jobs[i];
+                path[depth] = job;
+                if(depth + 1 == size){
+                    bestCost = bounds[i];
+                    best = path.clone();
+                }else{
+                    depthFirst(depth + 1, open & ~(1L << job), add(spent, cost(row + job)));
+                }
             }
-            return prev.listPath(path, i-1);
         }
-        public double getCost(){
-            return cost;
+        /**
+         * Immutable node of the best first search: the first 'depth' workers assigned to the jobs on
+         * the path to it, leaving the 'open' jobs.
+        */
+        private static final class Node {
+            private final Node prev;
+            private final int job;
+            private final int depth;
+            private final long open;
+            private final long cost;
+            private final long bound;
+
+            private Node(Node prev, int job, int depth, long open, long cost, long bound){
+                this.prev = prev;
+                this.job = job;
+                this.depth = depth;
+                this.open = open;
+                this.cost = cost;
+                this.bound = bound;
+            }
+            private int[] listPath(int size){
+                int[] goal = new int[size];
+                for(Node at = this; at.prev != null; at = at.prev){
+                    goal[at.depth - 1] = at.job;
+                }
+                return goal;
+            }
+        }
+    }
+    /**
+     * Search over double costs, cost[worker*size + job], each held as its bits.
+    */
+    private static final class DoubleSearch extends Search {
+        private final double[] cost;
+
+        private DoubleSearch(double[] cost, long[] allowed, int size){
+            super(allowed, size, Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+            this.cost = cost;
         }
-        public int compareTo(Node other) {
-            return Double.compare(getCost(), other.getCost());
+        @Override
+        long cost(int index){
+            return Double.doubleToRawLongBits(cost[index]);
         }
-        public Set<Node> getChildren(){
-            Set<Node> goal = new HashSet<>();
-            for(Integer job: possibleJobs){
-                goal.add(assignJob(job));
-            }
-            return goal;
+        @Override
+        long add(long a, long b){
+            return Double.doubleToRawLongBits(Double.longBitsToDouble(a) + Double.longBitsToDouble(b));
+        }
+        @Override
+        boolean less(long a, long b){
+            return Double.longBitsToDouble(a) < Double.longBitsToDouble(b);
+        }
+    }
+    /**
+     * Search over exact long costs, cost[worker*size + job].
+    */
+    private static final class LongSearch extends Search {
+        private final long[] cost;
+
+        private LongSearch(long[] cost, long[] allowed, int size){
+            super(allowed, size, Long.MAX_VALUE);
+            this.cost = cost;
+        }
+        @Override
+        long cost(int index){
+            return cost[index];
+        }
+        @Override
+        long add(long a, long b){
+            return a + b;
+        }
+        @Override
+        boolean less(long a, long b){
+            return a < b;
         }
     }
-}
\ No newline at end of file
+}
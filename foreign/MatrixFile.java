@@ -0,0 +1,356 @@
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes matrices in a binary file format through memory-mapped FileChannel I/O.
+ *
+ * A file is a HEADER_BYTES header followed by the values, all little-endian:
+ *   bytes 0-3   magic "MTRX"
+ *   bytes 4-5   version, currently 1
+ *   byte  6     dtype of the values, one of FLOAT64, FLOAT32, INT32, INT64
+ *   byte  7     layout of the values, ROW_MAJOR or COLUMN_MAJOR
+ *   bytes 8-15  height
+ *   bytes 16-23 width
+ *   the rest of the header is zero.
+ * Writing always uses FLOAT64 and ROW_MAJOR. Reading accepts every dtype and layout.
+*/
+public final class MatrixFile {
+    public static final byte FLOAT64 = 0;
+    public static final byte FLOAT32 = 1;
+    public static final byte INT32 = 2;
+    public static final byte INT64 = 3;
+    public static final byte ROW_MAJOR = 0;
+    public static final byte COLUMN_MAJOR = 1;
+    // Header length, a multiple of 8 so that the values stay aligned.
+    static final int HEADER_BYTES = 64;
+    private static final int MAGIC = 'M' | 'T' << 8 | 'R' << 16 | 'X' << 24;
+    private static final short VERSION = 1;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfShort SHORT = ValueLayout.JAVA_SHORT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfFloat FLOAT = ValueLayout.JAVA_FLOAT_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED.withOrder(ByteOrder.LITTLE_ENDIAN);
+
+    private MatrixFile(){
+    }
+    /**
+     * Return the matrix in the file at 'path' as an OffHeapMatrix. A FLOAT64 ROW_MAJOR file is mapped,
+     * not read, so this costs O(1) and the values are paged in from the file as they are used. Other
+     * files are converted into new off heap memory. The file must not change while the result is open.
+     *
+     * @param path file to open.
+     * @throws IllegalArgumentException iff 'path' == null or the file is not a valid matrix file.
+     * @throws IOException iff the file cannot be read.
+     * @return the matrix in the file, which must be closed to unmap the file.
+     *
+     * O(1) for FLOAT64 ROW_MAJOR files, O(getN()*getM()) otherwise
+    */
+    public static OffHeapMatrix map(Path path) throws IOException{
+        checkNull(path);
+        Arena arena = Arena.ofShared();
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            Header header = Header.read(file);
+            MemorySegment values = file.asSlice(HEADER_BYTES);
+            if(header.dtype == FLOAT64 && header.layout == ROW_MAJOR && ByteOrder.nativeOrder() == ByteOrder.LITTLE_ENDIAN){
+                return new OffHeapMatrix(arena, values, header.height, header.width);
+            }
+            OffHeapMatrix goal = new OffHeapMatrix(header.height, header.width);
+            MemorySegment segment = goal.segment();
+            long size = (long)header.height*header.width;
+            for(long i = 0; i != size; i++){
+                segment.setAtIndex(ValueLayout.JAVA_DOUBLE, i, header.get(values, i));
+            }
+            arena.close();
+            return goal;
+        }catch(IOException | RuntimeException e){
+            if(arena.scope().isAlive()){
+                arena.close();
+            }
+            throw e;
+        }
+    }
+    /**
+     * Return the matrix in the file at 'path' read onto the heap.
+     *
+     * @param path file to read.
+     * @throws IllegalArgumentException iff 'path' == null, the file is not a valid matrix file or it is
+     * too large for a Matrix.
+     * @throws IOException iff the file cannot be read.
+     * @return the matrix in the file.
+     *
+     * O(getN()*getM())
+    */
+    public static Matrix read(Path path) throws IOException{
+        checkNull(path);
+        try(Arena arena = Arena.ofConfined(); FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+            Header header = Header.read(file);
+            long size = (long)header.height*header.width;
+            if(size > Integer.MAX_VALUE - 8){
+                throw new IllegalArgumentException("A "+header.height+" by "+header.width+" matrix is too large for the heap.");
+            }
+            MemorySegment values = file.asSlice(HEADER_BYTES);
+            double[] graph = new double[(int)size];
+            if(header.dtype == FLOAT64 && header.layout == ROW_MAJOR){
+                MemorySegment.copy(values, DOUBLE, 0, graph, 0, graph.length);
+            }else{
+                for(int i = 0; i != graph.length; i++){
+                    graph[i] = header.get(values, i);
+                }
+            }
+            return new Matrix(header.height, header.width, graph);
+        }
+    }
+    /**
+     * Write 'matrix' to the file at 'path', replacing it if it exists.
+     *
+     * @param matrix matrix to write.
+     * @param path file to write.
+     * @throws IllegalArgumentException iff 'matrix' == null || 'path' == null.
+     * @throws IOException iff the file cannot be written.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static void write(Matrix matrix, Path path) throws IOException{
+        checkNull(matrix);
+        double[] graph = matrix.sharedArray();
+        write(MemorySegment.ofArray(graph), matrix.getN(), matrix.getM(), path);
+    }
+    /**
+     * Write 'matrix' to the file at 'path', replacing it if it exists. The values are copied from
+     * memory to memory and never pass through the heap.
+     *
+     * @param matrix matrix to write.
+     * @param path file to write.
+     * @throws IllegalArgumentException iff 'matrix' == null || 'path' == null.
+     * @throws IllegalStateException iff 'matrix' was closed.
+     * @throws IOException iff the file cannot be written.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static void write(OffHeapMatrix matrix, Path path) throws IOException{
+        checkNull(matrix);
+        write(matrix.segment(), matrix.getN(), matrix.getM(), path);
+    }
+    private static void write(MemorySegment values, int height, int width, Path path) throws IOException{
+        checkNull(path);
+        long bytes = (long)height*width*Double.BYTES;
+        try(Arena arena = Arena.ofConfined(); FileChannel channel = open(path)){
+            MemorySegment file = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES + bytes, arena);
+            writeHeader(file, height, width);
+            MemorySegment.copy(values, ValueLayout.JAVA_DOUBLE, 0, file, DOUBLE, HEADER_BYTES, (long)height*width);
+            file.force();
+        }
+    }
+    /**
+     * Return a Writer that streams the rows of a matrix with 'width' columns into the file at 'path',
+     * replacing it if it exists. The height is not needed in advance.
+     *
+     * @param path file to write.
+     * @param width m of the matrix.
+     * @throws IllegalArgumentException iff 'path' == null || 'width' < 0.
+     * @throws IOException iff the file cannot be written.
+     * @return Writer for the rows of the file.
+     *
+     * O(1)
+    */
+    public static Writer writer(Path path, int width) throws IOException{
+        checkNull(path);
+        if(width < 0){
+            throw new IllegalArgumentException("Width must be atleast 0, is "+width+".");
+        }
+        return new Writer(open(path), width);
+    }
+    private static FileChannel open(Path path) throws IOException{
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+    private static void writeHeader(MemorySegment file, long height, int width){
+        file.set(INT, 0, MAGIC);
+        file.set(SHORT, 4, VERSION);
+        file.set(ValueLayout.JAVA_BYTE, 6, FLOAT64);
+        file.set(ValueLayout.JAVA_BYTE, 7, ROW_MAJOR);
+        file.set(LONG, 8, height);
+        file.set(LONG, 16, width);
+    }
+    private static void checkNull(Object ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+    }
+    /**
+     * Writes the rows of a matrix to a file one at a time. Rows go into a mapped window of the file
+     * that moves forward as it fills, and close() writes the final height into the header.
+    */
+    public static final class Writer implements AutoCloseable {
+        // Bytes of the file mapped at a time.
+        private static final long WINDOW_BYTES = 8L*1024*1024;
+        private final FileChannel channel;
+        private final int width;
+        private long height;
+        // Open window, which covers the file from 'windowStart' to 'windowStart' + window.byteSize().
+        private Arena arena;
+        private MemorySegment window;
+        private long windowStart;
+
+        private Writer(FileChannel channel, int width){
+            this.channel = channel;
+            this.width = width;
+        }
+        /**
+         * Append 'row' as the next row of the matrix.
+         *
+         * @param row values of the row.
+         * @throws IllegalArgumentException iff 'row' == null || row.length != the width of the matrix.
+         * @throws IllegalStateException iff this was closed.
+         * @throws IOException iff the file cannot be written.
+         * @modifies this
+         *
+         * O('row'.length)
+        */
+        public void writeRow(double[] row) throws IOException{
+            checkNull(row);
+            if(row.length != width){
+                throw new IllegalArgumentException("Row must have "+width+" values, has "+row.length+".");
+            }
+            if(!channel.isOpen()){
+                throw new IllegalStateException("Writer was already closed.");
+            }
+            long place = HEADER_BYTES + height*width*Double.BYTES;
+            int written = 0;
+            while(written != width){
+                if(window == null || place == windowStart + window.byteSize()){
+                    moveWindow(place);
+                }
+                int count = (int)Math.min(width - written, (windowStart + window.byteSize() - place)/Double.BYTES);
+                MemorySegment.copy(row, written, window, DOUBLE, place - windowStart, count);
+                written += count;
+                place += (long)count*Double.BYTES;
+            }
+            height++;
+        }
+        /**
+         * Write the height into the header, trim the file to its contents and close it.
+         * Closing twice has no effect.
+         *
+         * @throws IllegalArgumentException iff more than Integer.MAX_VALUE rows were written.
+         * @throws IOException iff the file cannot be written.
+         * @modifies this
+         *
+         * O(1)
+        */
+        @Override
+        public void close() throws IOException{
+            if(!channel.isOpen()){
+                return;
+            }
+            try{
+                if(height > Integer.MAX_VALUE){
+                    throw new IllegalArgumentException("Wrote "+height+" rows, more than a matrix can have.");
+                }
+                moveWindow(0);
+                writeHeader(window, height, width);
+                window.force();
+                arena.close();
+                arena = null;
+                channel.truncate(HEADER_BYTES + height*width*Double.BYTES);
+            }finally{
+                if(arena != null){
+                    arena.close();
+                }
+                channel.close();
+            }
+        }
+        /**
+         * Unmap the open window and map WINDOW_BYTES of the file starting at 'start', growing the file
+         * if needed.
+         *
+         * @modifies this
+        */
+        private void moveWindow(long start) throws IOException{
+            if(arena != null){
+                window.force();
+                arena.close();
+            }
+            arena = Arena.ofConfined();
+            windowStart = start;
+            window = channel.map(FileChannel.MapMode.READ_WRITE, start, WINDOW_BYTES, arena);
+        }
+    }
+    /**
+     * The fields of a file header.
+    */
+    private static final class Header {
+        private final byte dtype;
+        private final byte layout;
+        private final int height;
+        private final int width;
+
+        private Header(byte dtype, byte layout, int height, int width){
+            this.dtype = dtype;
+            this.layout = layout;
+            this.height = height;
+            this.width = width;
+        }
+        /**
+         * Return the header at the start of 'file'.
+         *
+         * @throws IllegalArgumentException iff 'file' does not start with a valid header or is too short
+         * for the values it declares.
+        */
+        private static Header read(MemorySegment file){
+            if(file.byteSize() < HEADER_BYTES || file.get(INT, 0) != MAGIC){
+                throw new IllegalArgumentException("Not a matrix file.");
+            }
+            short version = file.get(SHORT, 4);
+            if(version != VERSION){
+                throw new IllegalArgumentException("Unsupported matrix file version "+version+".");
+            }
+            byte dtype = file.get(ValueLayout.JAVA_BYTE, 6);
+            byte layout = file.get(ValueLayout.JAVA_BYTE, 7);
+            long height = file.get(LONG, 8);
+            long width = file.get(LONG, 16);
+            if(dtype < FLOAT64 || dtype > INT64 || (layout != ROW_MAJOR && layout != COLUMN_MAJOR)){
+                throw new IllegalArgumentException("Unsupported dtype "+dtype+" or layout "+layout+".");
+            }
+            if(height < 0 || width < 0 || height > Integer.MAX_VALUE || width > Integer.MAX_VALUE){
+                throw new IllegalArgumentException("Invalid dimensions "+height+" by "+width+".");
+            }
+            Header header = new Header(dtype, layout, (int)height, (int)width);
+            // Divided rather than multiplied, since height*width*bytes() can overflow a long.
+            if(width != 0 && height > (file.byteSize() - HEADER_BYTES)/width/header.bytes()){
+                throw new IllegalArgumentException("Matrix file is truncated.");
+            }
+            return header;
+        }
+        private int bytes(){
+            return dtype == FLOAT32 || dtype == INT32 ? 4 : 8;
+        }
+        /**
+         * Return the element at row-major index 'index' of the values 'values' as a double.
+        */
+        private double get(MemorySegment values, long index){
+            if(layout == COLUMN_MAJOR){
+                index = index%width*height + index/width;
+            }
+            long place = index*bytes();
+            switch(dtype){
+                case FLOAT32:
+                    return values.get(FLOAT, place);
+                case INT32:
+                    return values.get(INT, place);
+                case INT64:
+                    return values.get(LONG, place);
+                default:
+                    return values.get(DOUBLE, place);
+            }
+        }
+    }
+}
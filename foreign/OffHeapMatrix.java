@@ -0,0 +1,322 @@
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+
+/**
+ * An immutable matrix stored off the Java heap in a MemorySegment, for matrices too large for a
+ * double[] or for the garbage collector to scan. The values are row-major, so element (x, y) is at
+ * index y*getM() + x, and indices are longs so the element count is not limited to 2^31.
+ *
+ * Each OffHeapMatrix owns the memory it was created with and frees it on close(), after which using
+ * it throws IllegalStateException. Matrices returned by operations own new memory and must be closed
+ * separately.
+*/
+// segment[y*width + x], segment[height][width], segment[N][M]
+public final class OffHeapMatrix implements AutoCloseable {
+    // Rows and columns of the tiles copied to the heap for multiplication and transposition.
+    private static final int ROW_BLOCK = 64;
+    private static final int DEPTH_BLOCK = 256;
+    private static final int COLUMN_BLOCK = 512;
+
+    private final Arena arena;
+    private final MemorySegment segment;
+    private final int height;
+    private final int width;
+
+    /**
+     * Create a 'height'X'width' matrix filled with zeros.
+     *
+     * @param height n of matrix
+     * @param width m of matrix
+     * @throws IllegalArgumentException iff 'height' or 'width' < 0.
+     *
+     * O('height'*'width')
+    */
+    public OffHeapMatrix(int height, int width){
+        this(height, width, Arena.ofShared());
+    }
+    private OffHeapMatrix(int height, int width, Arena arena){
+        this(arena, allocate(arena, height, width), height, width);
+    }
+    /**
+     * Create a 'height'X'width' matrix over 'segment', freeing 'arena' on close(). 'arena' may be null
+     * if the memory of 'segment' is owned elsewhere.
+     *
+     * @spec.requires segment.byteSize() >= 'height'*'width'*8.
+     *
+     * O(1)
+    */
+    OffHeapMatrix(Arena arena, MemorySegment segment, int height, int width){
+        this.arena = arena;
+        this.segment = segment;
+        this.height = height;
+        this.width = width;
+    }
+    private static MemorySegment allocate(Arena arena, int height, int width){
+        if(height < 0 || width < 0){
+            arena.close();
+            throw new IllegalArgumentException("Dimensions must be atleast 0X0.");
+        }
+        // Memory from an arena is zeroed.
+        return arena.allocate(Math.max(1, (long)height*width*Double.BYTES), Double.BYTES);
+    }
+    /**
+     * Return an off heap copy of 'matrix'.
+     *
+     * @param matrix matrix to copy.
+     * @throws IllegalArgumentException iff 'matrix' == null
+     * @return off heap copy of 'matrix'.
+     *
+     * O(matrix.getN()*matrix.getM())
+    */
+    public static OffHeapMatrix of(Matrix matrix){
+        checkNull(matrix);
+        OffHeapMatrix goal = new OffHeapMatrix(matrix.getN(), matrix.getM());
+        double[] graph = matrix.sharedArray();
+        MemorySegment.copy(graph, 0, goal.segment, ValueLayout.JAVA_DOUBLE, 0, graph.length);
+        return goal;
+    }
+    /**
+     * Return an on heap copy of this.
+     *
+     * @throws IllegalArgumentException iff this has more elements than a double[] can hold.
+     * @throws IllegalStateException iff this was closed.
+     * @return this as a Matrix.
+     *
+     * O(getN()*getM())
+    */
+    public Matrix toMatrix(){
+        long size = getSize();
+        if(size > Integer.MAX_VALUE - 8){
+            throw new IllegalArgumentException("A "+height+" by "+width+" matrix is too large for the heap.");
+        }
+        double[] graph = new double[(int)size];
+        MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, 0, graph, 0, graph.length);
+        return new Matrix(height, width, graph);
+    }
+    /**
+     * Get graph height.
+     * @return graph height.
+     *
+     * O(1)
+    */
+    public int getN(){
+        return height;
+    }
+    /**
+     * Get graph width.
+     * @return graph width
+     *
+     * O(1)
+    */
+    public int getM(){
+        return width;
+    }
+    /**
+     * Return the number of elements of this.
+     *
+     * @return getN()*getM().
+     *
+     * O(1)
+    */
+    public long getSize(){
+        return (long)height*width;
+    }
+    /**
+     * Get number in place 'x' 'y'.
+     * @spec.requires 0 <= x < getM(), 0 <= y < getN().
+     * @throws IllegalStateException iff this was closed.
+     *
+     * O(1)
+    */
+    public double get(int x, int y){
+        return get((long)y*width + x);
+    }
+    /**
+     * Get number at row-major index 'index', the element in place 'index' % getM() 'index' / getM().
+     * @spec.requires 0 <= index < getSize().
+     * @throws IllegalStateException iff this was closed.
+     *
+     * O(1)
+    */
+    public double get(long index){
+        return segment.getAtIndex(ValueLayout.JAVA_DOUBLE, index);
+    }
+    /**
+     * Return the sum of this and 'mat'.
+     *
+     * @param mat Matrix to be added.
+     * @throws IllegalArgumentException if mat == null
+     * @throws IllegalArgumentException if mat.getN() != this.getN() || mat.getM() != this.getM();
+     * @throws IllegalStateException iff this or 'mat' was closed.
+     * @return sum of this and 'mat'.
+     *
+     * O(getN()*getM())
+    */
+    public OffHeapMatrix add(OffHeapMatrix mat){
+        checkNull(mat);
+        if(mat.height != height || mat.width != width){
+            throw new IllegalArgumentException("Cannot preform opperation on matricies of differnt dimensions.\n mat.getN() = " + mat.height +
+            " while this.getN() = "+height+" mat.getM() = "+ mat.width + " while this.getM() = "+width+".");
+        }
+        OffHeapMatrix goal = new OffHeapMatrix(height, width);
+        long size = getSize();
+        for(long i = 0; i != size; i++){
+            goal.segment.setAtIndex(ValueLayout.JAVA_DOUBLE, i, get(i) + mat.get(i));
+        }
+        return goal;
+    }
+    /**
+     * Return this scaled by 'scale'.
+     *
+     * @param scale value to scale by.
+     * @spec.requires no NaN inputs.
+     * @throws IllegalStateException iff this was closed.
+     * @return scaled matrix.
+     *
+     * O(getN()*getM())
+    */
+    public OffHeapMatrix scale(double scale){
+        OffHeapMatrix goal = new OffHeapMatrix(height, width);
+        long size = getSize();
+        for(long i = 0; i != size; i++){
+            goal.segment.setAtIndex(ValueLayout.JAVA_DOUBLE, i, get(i)*scale);
+        }
+        return goal;
+    }
+    /**
+     * Return the transpose of this. Copies ROW_BLOCK square tiles so that both reads and writes stay
+     * within a few pages at a time.
+     *
+     * @throws IllegalStateException iff this was closed.
+     * @return transpose of this.
+     *
+     * O(getN()*getM())
+    */
+    public OffHeapMatrix transpose(){
+        OffHeapMatrix goal = new OffHeapMatrix(width, height);
+        for(int y0 = 0; y0 < height; y0 += ROW_BLOCK){
+            int yEnd = Math.min(height, y0 + ROW_BLOCK);
+            for(int x0 = 0; x0 < width; x0 += ROW_BLOCK){
+                int xEnd = Math.min(width, x0 + ROW_BLOCK);
+                for(int y = y0; y != yEnd; y++){
+                    for(int x = x0; x != xEnd; x++){
+                        goal.segment.setAtIndex(ValueLayout.JAVA_DOUBLE, (long)x*height + y, get(x, y));
+                    }
+                }
+            }
+        }
+        return goal;
+    }
+    /**
+     * Returns the matrix multiple of two matrices. Returns null is this is impossible.
+     * Tiles of both operands are copied to the heap and multiplied by the dense kernels, so only
+     * O(ROW_BLOCK*DEPTH_BLOCK + DEPTH_BLOCK*COLUMN_BLOCK) heap is used whatever the size.
+     *
+     * @param matrix value to multiply this by.
+     * @throws IllegalArgumentException Iff 'matrix' == null.
+     * @throws IllegalStateException iff this or 'matrix' was closed.
+     * @return matrix multiple of this and 'matrix'.
+     * @return null if not AXB times BXC matricies
+     *
+     * O(getN()*getM()*matrix.getM())
+    */
+    public OffHeapMatrix matrixMultiply(OffHeapMatrix matrix){
+        checkNull(matrix);
+        if(width != matrix.height){
+            return null;
+        }
+        int goalWidth = matrix.width;
+        OffHeapMatrix goal = new OffHeapMatrix(height, goalWidth);
+        double[] left = new double[ROW_BLOCK*DEPTH_BLOCK];
+        double[] right = new double[DEPTH_BLOCK*COLUMN_BLOCK];
+        double[] product = new double[ROW_BLOCK*COLUMN_BLOCK];
+        double[] row = new double[COLUMN_BLOCK];
+        for(int x0 = 0; x0 < goalWidth; x0 += COLUMN_BLOCK){
+            int columns = Math.min(COLUMN_BLOCK, goalWidth - x0);
+            for(int k0 = 0; k0 < width; k0 += DEPTH_BLOCK){
+                int depth = Math.min(DEPTH_BLOCK, width - k0);
+                for(int k = 0; k != depth; k++){
+                    MemorySegment.copy(matrix.segment, ValueLayout.JAVA_DOUBLE, ((long)(k0 + k)*goalWidth + x0)*Double.BYTES, right, k*columns, columns);
+                }
+                for(int y0 = 0; y0 < height; y0 += ROW_BLOCK){
+                    int rows = Math.min(ROW_BLOCK, height - y0);
+                    for(int y = 0; y != rows; y++){
+                        MemorySegment.copy(segment, ValueLayout.JAVA_DOUBLE, ((long)(y0 + y)*width + k0)*Double.BYTES, left, y*depth, depth);
+                    }
+                    MatrixKernels.multiply(left, 0, depth, right, 0, columns, product, 0, columns, rows, depth, columns, 0, rows);
+                    for(int y = 0; y != rows; y++){
+                        long place = ((long)(y0 + y)*goalWidth + x0)*Double.BYTES;
+                        if(k0 != 0){
+                            MemorySegment.copy(goal.segment, ValueLayout.JAVA_DOUBLE, place, row, 0, columns);
+                            for(int x = 0; x != columns; x++){
+                                product[y*columns + x] += row[x];
+                            }
+                        }
+                        MemorySegment.copy(product, y*columns, goal.segment, ValueLayout.JAVA_DOUBLE, place, columns);
+                    }
+                }
+            }
+        }
+        return goal;
+    }
+    /**
+     * Return the largest value of this.
+     *
+     * @throws IllegalStateException iff this was closed.
+     * @return the largest value.
+     *
+     * O(getN()*getM())
+    */
+    public double getMax(){
+        return getMinOrMax(true);
+    }
+    /**
+     * Return the smallest value of this.
+     *
+     * @throws IllegalStateException iff this was closed.
+     * @return the smallest value.
+     *
+     * O(getN()*getM())
+    */
+    public double getMin(){
+        return getMinOrMax(false);
+    }
+    private double getMinOrMax(boolean max){
+        double val = get(0);
+        long size = getSize();
+        for(long i = 1; i < size; i++){
+            double value = get(i);
+            if(val < value == max){
+                val = value;
+            }
+        }
+        return val;
+    }
+    /**
+     * Return the segment holding the values of this.
+     *
+     * O(1)
+    */
+    MemorySegment segment(){
+        return segment;
+    }
+    /**
+     * Free the memory of this. Closing twice has no effect.
+     *
+     * @modifies this
+     *
+     * O(1)
+    */
+    @Override
+    public void close(){
+        if(arena != null && segment.scope().isAlive()){
+            arena.close();
+        }
+    }
+    private static void checkNull(Object ob){
+        if(ob == null){
+            throw new IllegalArgumentException("Null input.");
+        }
+    }
+}
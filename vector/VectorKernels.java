@@ -0,0 +1,90 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * ArrayKernels written with the jdk.incubator.vector API. Each loop runs over whole vectors of the
+ * preferred species, as wide as the CPU supports, and finishes the remaining values with the scalar
+ * loops. Only loaded by ArrayKernels when the module is present, so it must be compiled and run with
+ * --add-modules jdk.incubator.vector.
+*/
+final class VectorKernels extends ArrayKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    @Override
+    void add(double[] a, double[] b, double[] c, int length){
+        int bound = SPECIES.loopBound(length);
+        for(int i = 0; i != bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, a, i).add(DoubleVector.fromArray(SPECIES, b, i)).intoArray(c, i);
+        }
+        Scalar.add(a, b, c, bound, length);
+    }
+    @Override
+    void add(double[] a, double value, double[] c, int length){
+        int bound = SPECIES.loopBound(length);
+        for(int i = 0; i != bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, a, i).add(value).intoArray(c, i);
+        }
+        Scalar.add(a, value, c, bound, length);
+    }
+    @Override
+    void scale(double[] a, double scale, double[] c, int length){
+        int bound = SPECIES.loopBound(length);
+        for(int i = 0; i != bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, a, i).mul(scale).intoArray(c, i);
+        }
+        Scalar.scale(a, scale, c, bound, length);
+    }
+    @Override
+    void abs(double[] a, double[] c, int length){
+        int bound = SPECIES.loopBound(length);
+        for(int i = 0; i != bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, a, i).abs().intoArray(c, i);
+        }
+        Scalar.abs(a, c, bound, length);
+    }
+    @Override
+    void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length){
+        int bound = SPECIES.loopBound(length);
+        DoubleVector scale = DoubleVector.broadcast(SPECIES, alpha);
+        for(int i = 0; i != bound; i += SPECIES.length()){
+            DoubleVector.fromArray(SPECIES, x, xOffset + i).mul(scale).add(DoubleVector.fromArray(SPECIES, y, yOffset + i)).intoArray(y, yOffset + i);
+        }
+        Scalar.axpy(alpha, x, xOffset, y, yOffset, bound, length);
+    }
+    @Override
+    double dot(double[] a, double[] b, int length){
+        int bound = SPECIES.loopBound(length);
+        DoubleVector sum = DoubleVector.zero(SPECIES);
+        for(int i = 0; i != bound; i += SPECIES.length()){
+            sum = sum.add(DoubleVector.fromArray(SPECIES, a, i).mul(DoubleVector.fromArray(SPECIES, b, i)));
+        }
+        return sum.reduceLanes(VectorOperators.ADD) + Scalar.dot(a, b, bound, length);
+    }
+    @Override
+    double max(double[] a, int length){
+        int bound = SPECIES.loopBound(length);
+        double val = a[0];
+        if(bound != 0){
+            DoubleVector best = DoubleVector.fromArray(SPECIES, a, 0);
+            for(int i = SPECIES.length(); i != bound; i += SPECIES.length()){
+                best = best.max(DoubleVector.fromArray(SPECIES, a, i));
+            }
+            val = best.reduceLanes(VectorOperators.MAX);
+        }
+        return Scalar.max(a, val, bound, length);
+    }
+    @Override
+    double min(double[] a, int length){
+        int bound = SPECIES.loopBound(length);
+        double val = a[0];
+        if(bound != 0){
+            DoubleVector best = DoubleVector.fromArray(SPECIES, a, 0);
+            for(int i = SPECIES.length(); i != bound; i += SPECIES.length()){
+                best = best.min(DoubleVector.fromArray(SPECIES, a, i));
+            }
+            val = best.reduceLanes(VectorOperators.MIN);
+        }
+        return Scalar.min(a, val, bound, length);
+    }
+}